@@ -0,0 +1,51 @@
+package com.keyjolt.controller;
+
+import com.keyjolt.validation.FieldResult;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-field AJAX validation, for both a valid and an invalid value
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private static final Map<String, String[]> SAMPLES = Map.of(
+        "name", new String[] {"Jane Doe 2", "Jane <script>"},
+        "email", new String[] {"jane.doe+keys@example.co.uk", "jane.doe@example"},
+        "keyExpiry", new String[] {"365", "forever"},
+        "keyType", new String[] {"ED25519", "DSA"},
+        "password", new String[] {"correct horse battery", "short"}
+    );
+
+    @Param({"name", "email", "keyExpiry", "keyType", "password"})
+    private String field;
+
+    private final KeyController controller = new KeyController();
+    private String validValue;
+    private String invalidValue;
+
+    @Setup
+    public void setUp() {
+        validValue = SAMPLES.get(field)[0];
+        invalidValue = SAMPLES.get(field)[1];
+    }
+
+    @Benchmark
+    public ResponseEntity<FieldResult> valid() {
+        return controller.validateField(field, validValue);
+    }
+
+    @Benchmark
+    public ResponseEntity<FieldResult> invalid() {
+        return controller.validateField(field, invalidValue);
+    }
+}
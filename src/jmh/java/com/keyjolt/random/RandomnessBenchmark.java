@@ -0,0 +1,56 @@
+package com.keyjolt.random;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random bytes drawn by 8 threads at once, as during concurrent prime
+ * searches: one shared system SecureRandom against the striped DRBGs
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class RandomnessBenchmark {
+
+    @Param({"system", "drbg"})
+    private String provider;
+
+    @Param({"32", "256"})
+    private int size;
+
+    private RandomnessProvider randomness;
+
+    @Setup
+    public void setUp() {
+        if ("drbg".equals(provider)) {
+            DrbgRandomnessProvider drbg = new DrbgRandomnessProvider();
+            ReflectionTestUtils.setField(drbg, "stripes", 0);
+            drbg.init();
+            randomness = drbg;
+        } else {
+            randomness = new SystemRandomnessProvider();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Buffer {
+        byte[] bytes;
+
+        @Setup
+        public void setUp(RandomnessBenchmark benchmark) {
+            bytes = new byte[benchmark.size];
+        }
+    }
+
+    @Benchmark
+    public byte[] nextBytes(Buffer buffer) {
+        randomness.strong().nextBytes(buffer.bytes);
+        return buffer.bytes;
+    }
+}
@@ -0,0 +1,40 @@
+package com.keyjolt.ratelimit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate-limit checks under contention: every thread hammering one client key,
+ * or spreading over many keys as during a distributed flood
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "1024", "1000000"})
+    private int keys;
+
+    private StripedRateLimiter limiter;
+    private String[] clientKeys;
+
+    @Setup
+    public void setUp() {
+        limiter = new StripedRateLimiter(10, 5, 65536);
+        clientKeys = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            clientKeys[i] = "10." + ((i >>> 16) & 0xFF) + "." + ((i >>> 8) & 0xFF) + "." + (i & 0xFF);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return limiter.tryAcquire(clientKeys[ThreadLocalRandom.current().nextInt(keys)], 1);
+    }
+}
@@ -0,0 +1,68 @@
+package com.keyjolt.service;
+
+import com.keyjolt.store.StoredArtifact;
+import org.bouncycastle.openpgp.PGPPublicKeyRing;
+import org.bouncycastle.openpgp.PGPSecretKeyRing;
+import org.bouncycastle.openpgp.PGPUtil;
+import org.bouncycastle.openpgp.operator.bc.BcKeyFingerprintCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ASCII armoring of finished key rings, on its own and into the artifact store
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArmoringBenchmark {
+
+    @Param({"RSA-2048", "RSA-4096", "ED25519", "ECDSA_P384"})
+    private String algorithm;
+
+    private ServiceFixture fixture;
+    private PGPPublicKeyRing publicKeyRing;
+    private PGPSecretKeyRing secretKeyRing;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = new ServiceFixture();
+        PgpKeyService.PgpKeyPair keyPair = fixture.pgpKeyService.generateKeyPair(ServiceFixture.request(algorithm, false));
+        publicKeyRing = new PGPPublicKeyRing(decode(keyPair.getPublicKeyFile()), new BcKeyFingerprintCalculator());
+        secretKeyRing = new PGPSecretKeyRing(decode(keyPair.getPrivateKeyFile()), new BcKeyFingerprintCalculator());
+        fixture.evictArtifacts();
+    }
+
+    @TearDown(Level.Iteration)
+    public void evict() {
+        fixture.evictArtifacts();
+    }
+
+    @Benchmark
+    public void armorPublicRing() throws IOException {
+        PgpKeyService.exportArmored(publicKeyRing, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void armorSecretRing() throws IOException {
+        PgpKeyService.exportArmored(secretKeyRing, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public StoredArtifact armorSecretRingIntoStore() throws IOException {
+        return fixture.artifactStore.store("bench_seckey.asc", out -> PgpKeyService.exportArmored(secretKeyRing, out));
+    }
+
+    private static InputStream decode(StoredArtifact artifact) throws IOException {
+        try (InputStream in = PGPUtil.getDecoderStream(artifact.openStream())) {
+            return new ByteArrayInputStream(in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.keyjolt.service;
+
+import com.keyjolt.model.KeyRequest;
+import com.keyjolt.model.KeyType;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end PGP and SSH key pair generation per algorithm, including
+ * keyring construction, armoring and storing the artifacts
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeyGenerationBenchmark {
+
+    @Param({"RSA-2048", "RSA-3072", "RSA-4096", "ED25519", "ECDSA_P256", "ECDSA_P384"})
+    private String algorithm;
+
+    private ServiceFixture fixture;
+    private KeyRequest request;
+    private AsymmetricCipherKeyPair sshMaterial;
+
+    @Setup
+    public void setUp() {
+        fixture = new ServiceFixture();
+        request = ServiceFixture.request(algorithm, true);
+        sshMaterial = request.resolveKeyType() == KeyType.RSA
+            ? fixture.rsaKeyPool.take(request.getEncryptionStrength())
+            : fixture.curveKeyGenerator.generateSigningKey(request.resolveKeyType());
+    }
+
+    @TearDown(Level.Iteration)
+    public void evict() {
+        fixture.evictArtifacts();
+    }
+
+    @Benchmark
+    public PgpKeyService.PgpKeyPair pgpKeyPair() throws Exception {
+        return fixture.pgpKeyService.generateKeyPair(request);
+    }
+
+    @Benchmark
+    public SshKeyService.SshKeyPair sshKeyPair() throws Exception {
+        return fixture.sshKeyService.generateKeyPair(request);
+    }
+
+    /**
+     * SSH encoding alone, around the same key material every time
+     */
+    @Benchmark
+    public SshKeyService.SshKeyPair sshEncodeOnly() throws Exception {
+        return fixture.sshKeyService.generateKeyPair(request, sshMaterial);
+    }
+}
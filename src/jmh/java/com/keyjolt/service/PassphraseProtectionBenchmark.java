@@ -0,0 +1,79 @@
+package com.keyjolt.service;
+
+import com.keyjolt.model.KeyType;
+import org.bouncycastle.bcpg.HashAlgorithmTags;
+import org.bouncycastle.bcpg.SymmetricKeyAlgorithmTags;
+import org.bouncycastle.openpgp.PGPException;
+import org.bouncycastle.openpgp.PGPKeyRingGenerator;
+import org.bouncycastle.openpgp.PGPSecretKeyRing;
+import org.bouncycastle.openpgp.PGPSignature;
+import org.bouncycastle.openpgp.operator.bc.BcPGPKeyPair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passphrase protection of a finished two-key ring per S2K setting: the
+ * built-in profiles' iteration counts, the iterated maximum, and Argon2 at
+ * the RFC 9580 memory constrained parameters and below
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PassphraseProtectionBenchmark {
+
+    private static final char[] PASSPHRASE = "correct horse battery".toCharArray();
+
+    @Param({"iterated-65536", "iterated-8388608", "iterated-65011712",
+            "argon2-1-4-16", "argon2-3-4-16", "argon2-1-1-14"})
+    private String s2k;
+
+    private ServiceFixture fixture;
+    private SecretKeyProtection protection;
+    private PGPSecretKeyRing ring;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = new ServiceFixture();
+        protection = parse(s2k);
+
+        KeyringProfile profile = fixture.keyringProfiles.get(null, KeyType.ED25519);
+        Date now = new Date();
+        PGPKeyRingGenerator generator = new PGPKeyRingGenerator(
+            PGPSignature.POSITIVE_CERTIFICATION,
+            new BcPGPKeyPair(profile.getSigningAlgorithm(),
+                fixture.curveKeyGenerator.generateSigningKey(KeyType.ED25519), now),
+            "Bench User <bench@example.com>",
+            profile.newChecksumCalculator(),
+            profile.masterSubpackets(0),
+            null,
+            profile.getSignerBuilder(),
+            null);
+        generator.addSubKey(new BcPGPKeyPair(profile.getEncryptionAlgorithm(),
+            fixture.curveKeyGenerator.generateEncryptionKey(KeyType.ED25519), now), profile.subkeySubpackets(0), null);
+        ring = generator.generateSecretKeyRing();
+    }
+
+    @Benchmark
+    public PGPSecretKeyRing protect() throws PGPException {
+        // protect zeroes the passphrase it is given
+        return protection.protect(ring, PASSPHRASE.clone(), fixture.randomness.strong());
+    }
+
+    /**
+     * {@code iterated-<octets>} or {@code argon2-<passes>-<lanes>-<memory exponent>}
+     */
+    private static SecretKeyProtection parse(String s2k) {
+        String[] parts = s2k.split("-");
+        if (parts[0].equals("iterated")) {
+            return SecretKeyProtection.iterated(SymmetricKeyAlgorithmTags.AES_256, HashAlgorithmTags.SHA256,
+                Long.parseLong(parts[1]));
+        }
+        return SecretKeyProtection.argon2(SymmetricKeyAlgorithmTags.AES_256,
+            Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+    }
+}
@@ -0,0 +1,52 @@
+package com.keyjolt.service;
+
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.generators.RSAKeyPairGenerator;
+import org.bouncycastle.crypto.params.RSAKeyGenerationParameters;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw RSA key pair generation, varying the inputs {@link RsaKeyPool} fixes:
+ * the primality certainty and the SecureRandom implementation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RsaKeyGenerationBenchmark {
+
+    private static final BigInteger PUBLIC_EXPONENT = BigInteger.valueOf(65537);
+
+    @Param({"2048", "3072", "4096"})
+    private int strength;
+
+    @Param({"80", "112"})
+    private int certainty;
+
+    /**
+     * "default" is {@code new SecureRandom()}, anything else a named algorithm
+     */
+    @Param({"default", "DRBG"})
+    private String random;
+
+    private RSAKeyGenerationParameters parameters;
+
+    @Setup
+    public void setUp() throws Exception {
+        SecureRandom secureRandom = "default".equals(random) ? new SecureRandom() : SecureRandom.getInstance(random);
+        parameters = new RSAKeyGenerationParameters(PUBLIC_EXPONENT, secureRandom, strength, certainty);
+    }
+
+    @Benchmark
+    public AsymmetricCipherKeyPair generate() {
+        RSAKeyPairGenerator generator = new RSAKeyPairGenerator();
+        generator.init(parameters);
+        return generator.generateKeyPair();
+    }
+}
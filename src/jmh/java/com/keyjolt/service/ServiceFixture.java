@@ -0,0 +1,71 @@
+package com.keyjolt.service;
+
+import com.keyjolt.config.KeyringProperties;
+import com.keyjolt.metrics.GenerationMetrics;
+import com.keyjolt.model.KeyRequest;
+import com.keyjolt.model.KeyType;
+import com.keyjolt.random.DrbgRandomnessProvider;
+import com.keyjolt.store.InMemoryArtifactStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Wires the generation services by hand, without a Spring context. The RSA
+ * pool is disabled so every take pays for fresh key material, and artifacts
+ * expire immediately so {@link #evictArtifacts()} keeps the heap flat.
+ */
+final class ServiceFixture {
+
+    final DrbgRandomnessProvider randomness = new DrbgRandomnessProvider();
+    final InMemoryArtifactStore artifactStore = new InMemoryArtifactStore();
+    final RsaKeyPool rsaKeyPool = new RsaKeyPool();
+    final CurveKeyGenerator curveKeyGenerator = new CurveKeyGenerator();
+    final PgpKeyService pgpKeyService = new PgpKeyService();
+    final SshKeyService sshKeyService = new SshKeyService();
+    final GenerationMetrics metrics = new GenerationMetrics();
+    final KeyringProfiles keyringProfiles = new KeyringProfiles();
+
+    ServiceFixture() {
+        ReflectionTestUtils.setField(artifactStore, "ttl", 0L);
+        ReflectionTestUtils.setField(artifactStore, "maxBytes", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(artifactStore, "offHeap", false);
+
+        randomness.init();
+        ReflectionTestUtils.setField(curveKeyGenerator, "randomness", randomness);
+
+        ReflectionTestUtils.setField(rsaKeyPool, "randomness", randomness);
+        ReflectionTestUtils.setField(rsaKeyPool, "enabled", false);
+        rsaKeyPool.init();
+
+        ReflectionTestUtils.setField(metrics, "registry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(keyringProfiles, "properties", new KeyringProperties());
+        keyringProfiles.init();
+        ReflectionTestUtils.setField(pgpKeyService, "randomness", randomness);
+        ReflectionTestUtils.setField(pgpKeyService, "keyringProfiles", keyringProfiles);
+
+        for (Object service : new Object[] {pgpKeyService, sshKeyService}) {
+            ReflectionTestUtils.setField(service, "artifactStore", artifactStore);
+            ReflectionTestUtils.setField(service, "rsaKeyPool", rsaKeyPool);
+            ReflectionTestUtils.setField(service, "curveKeyGenerator", curveKeyGenerator);
+            ReflectionTestUtils.setField(service, "metrics", metrics);
+        }
+    }
+
+    void evictArtifacts() {
+        artifactStore.evictExpired();
+    }
+
+    /**
+     * Request for an algorithm named like {@code RSA-4096} or {@code ED25519}
+     */
+    static KeyRequest request(String algorithm, boolean generateSshKey) {
+        KeyRequest request = new KeyRequest("Bench User", "bench@example.com", null, 365, generateSshKey, null);
+        if (algorithm.startsWith("RSA-")) {
+            request.setKeyType(KeyType.RSA.name());
+            request.setEncryptionStrength(Integer.parseInt(algorithm.substring(4)));
+        } else {
+            request.setKeyType(algorithm);
+        }
+        return request;
+    }
+}
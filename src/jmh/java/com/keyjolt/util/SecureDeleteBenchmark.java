@@ -0,0 +1,72 @@
+package com.keyjolt.util;
+
+import com.keyjolt.random.SystemRandomnessProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a key file to the temp directory and securely deleting it again,
+ * one file at a time and as a group sharing one burst of syncs
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecureDeleteBenchmark {
+
+    private static final int GROUP_SIZE = 8;
+
+    @Param({"4096", "16384", "65536"})
+    private int size;
+
+    private FileUtils fileUtils;
+    private File tempDir;
+    private byte[] content;
+    private long counter;
+
+    @Setup
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("keyjolt-bench").toFile();
+        fileUtils = new FileUtils();
+        ReflectionTestUtils.setField(fileUtils, "randomness", new SystemRandomnessProvider());
+        ReflectionTestUtils.setField(fileUtils, "tempDir", tempDir.getAbsolutePath());
+        // Scheduled deletion must not fire during the run; the benchmark deletes explicitly
+        ReflectionTestUtils.setField(fileUtils, "cleanupDelay", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(fileUtils, "tickMillis", 1000L);
+        ReflectionTestUtils.setField(fileUtils, "cleanupWorkers", 1);
+        fileUtils.initTempDirectory();
+        content = new byte[size];
+    }
+
+    @TearDown
+    public void tearDown() {
+        fileUtils.cleanupTempDirectory();
+        fileUtils.shutdown();
+        tempDir.delete();
+    }
+
+    @Benchmark
+    public void writeAndSecureDelete() throws IOException {
+        File file = fileUtils.writeToTempFile("bench-" + counter++, content);
+        fileUtils.secureDelete(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GROUP_SIZE)
+    public int writeAndSecureDeleteGroup() throws IOException {
+        List<File> files = new ArrayList<>(GROUP_SIZE);
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            files.add(fileUtils.writeToTempFile("bench-" + counter++, content));
+        }
+        return fileUtils.secureDeleteAll(files);
+    }
+}
@@ -0,0 +1,503 @@
+package com.keyjolt.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.keyjolt.KeyjoltApplication;
+import com.keyjolt.util.ThreadFactories;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.Security;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Open-model load generator and soak test for the HTTP API.
+ *
+ * Arrivals follow a Poisson process at a fixed mean rate, independent of
+ * how fast the server answers, so a slow server builds a backlog instead of
+ * quietly receiving less load. Latency counts from the scheduled arrival
+ * time, which keeps queueing in the client in the numbers. Each arrival is
+ * either a field validation or a generation followed by a download of
+ * every file it returned; generations draw their key type or strength, SSH
+ * and password options from the configured mix.
+ *
+ * The application is started in-process on a random port unless
+ * loadtest.base-url points at a running instance, whose metrics are read
+ * from loadtest.management-url (default http://localhost:9091). Every report interval a
+ * line gives throughput, latency, 429 and error counts, requests in
+ * flight, temp directory size and server heap; a summary per request type
+ * follows at the end.
+ *
+ * Run with:
+ * mvn -Ploadtest -DskipTests integration-test -Dloadtest.main=com.keyjolt.loadtest.LoadGenerator
+ *
+ * Tune with -Dloadtest.rate=arrivals/s, -Dloadtest.duration=seconds,
+ * -Dloadtest.mix.strength=2048:60,3072:30,4096:10 (RSA sizes or key type
+ * names with weights), -Dloadtest.mix.ssh, -Dloadtest.mix.password and
+ * -Dloadtest.mix.validate (fractions of 0..1). By default the rate limits
+ * are lifted; -Dloadtest.rate-limited=true keeps the configured ones, so
+ * the 429 rate is meaningful. -Dloadtest.app-args passes extra arguments
+ * to the in-process application, for example --app.artifact-store.type=file.
+ */
+public final class LoadGenerator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String VALIDATE_BODY = "field=email&value="
+        + URLEncoder.encode("load@example.com", StandardCharsets.UTF_8);
+
+    private static final String HEAP_METRIC = "jvm_memory_used_bytes{";
+
+    private LoadGenerator() {}
+
+    public static void main(String[] args) throws Exception {
+        Security.addProvider(new org.bouncycastle.jce.provider.BouncyCastleProvider());
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "2"));
+        int seconds = Integer.getInteger("loadtest.duration", 600);
+        int reportSeconds = Integer.getInteger("loadtest.report-interval", 30);
+        int maxInFlight = Integer.getInteger("loadtest.max-in-flight", 1000);
+        Mix mix = new Mix(System.getProperty("loadtest.mix.strength", "2048:60,3072:30,4096:10"),
+            Double.parseDouble(System.getProperty("loadtest.mix.ssh", "0.5")),
+            Double.parseDouble(System.getProperty("loadtest.mix.password", "0.3")),
+            Double.parseDouble(System.getProperty("loadtest.mix.validate", "0.5")));
+        String baseUrl = System.getProperty("loadtest.base-url", "");
+
+        String managementUrl = System.getProperty("loadtest.management-url", "");
+
+        ConfigurableApplicationContext context = null;
+        Path tempDir;
+        if (baseUrl.isBlank()) {
+            tempDir = Files.createTempDirectory("keyjolt-soak");
+            context = startApplication(tempDir, maxInFlight);
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            managementUrl = "http://localhost:" + context.getEnvironment().getProperty("local.management.port");
+        } else {
+            tempDir = Paths.get(System.getProperty("loadtest.temp-dir",
+                System.getProperty("java.io.tmpdir") + "/keyjolt"));
+            if (managementUrl.isBlank()) {
+                managementUrl = "http://localhost:9091";
+            }
+        }
+
+        try {
+            System.out.printf("target=%s rate=%.2f/s duration=%ds mix=%s%n", baseUrl, rate, seconds, mix);
+            new Run(baseUrl, managementUrl, tempDir, rate, seconds, reportSeconds, maxInFlight, mix).execute();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(Path tempDir, int maxInFlight) {
+        List<String> appArgs = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--management.server.port=0",
+            "--server.tomcat.threads.max=" + Math.max(200, maxInFlight),
+            "--app.temp-dir=" + tempDir,
+            "--app.admission.queue-capacity=" + maxInFlight,
+            "--logging.level.root=WARN",
+            "--logging.level.com.keyjolt=WARN",
+            "--logging.level.com.keyjolt.access=WARN"));
+        if (!Boolean.getBoolean("loadtest.rate-limited")) {
+            appArgs.add("--app.rate-limit.requests-per-hour=100000000");
+            appArgs.add("--app.rate-limit.burst-capacity=1000000");
+        }
+        // Command line arguments, so they win over application.properties
+        for (String arg : System.getProperty("loadtest.app-args", "").trim().split("\\s+")) {
+            if (!arg.isEmpty()) {
+                appArgs.add(arg);
+            }
+        }
+        return new SpringApplicationBuilder(KeyjoltApplication.class).run(appArgs.toArray(new String[0]));
+    }
+
+    private static final class Run {
+
+        private final String base;
+        private final String management;
+        private final Path tempDir;
+        private final double rate;
+        private final int seconds;
+        private final int reportSeconds;
+        private final int maxInFlight;
+        private final Mix mix;
+        private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        // Unbounded, so a slow response never delays the next arrival
+        private final ExecutorService workers =
+            Executors.newCachedThreadPool(ThreadFactories.platform("loadtest-worker", true));
+        private final Map<String, Stats> stats = new LinkedHashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong dropped = new AtomicLong();
+        private long lastReportNanos;
+
+        Run(String base, String management, Path tempDir, double rate, int seconds, int reportSeconds,
+            int maxInFlight, Mix mix) {
+            this.base = base;
+            this.management = management;
+            this.tempDir = tempDir;
+            this.rate = rate;
+            this.seconds = seconds;
+            this.reportSeconds = reportSeconds;
+            this.maxInFlight = maxInFlight;
+            this.mix = mix;
+            for (String type : List.of("generate", "download", "validate")) {
+                stats.put(type, new Stats());
+            }
+        }
+
+        void execute() throws InterruptedException {
+            Resources start = sample();
+            Resources peak = start;
+            System.out.printf("%7s %8s %9s %9s %9s %6s %6s %8s %9s %7s %9s%n",
+                "elapsed", "req/s", "gen p50", "gen p99", "val p99", "429", "errors",
+                "inflight", "tmp files", "tmp MB", "heap MB");
+
+            Random arrivals = new Random(42);
+            long begin = System.nanoTime();
+            long end = begin + TimeUnit.SECONDS.toNanos(seconds);
+            long nextReport = begin + TimeUnit.SECONDS.toNanos(reportSeconds);
+            long next = begin;
+            while (next < end) {
+                long now = System.nanoTime();
+                if (now >= nextReport) {
+                    peak = peak.max(report(now - begin));
+                    nextReport += TimeUnit.SECONDS.toNanos(reportSeconds);
+                }
+                if (now < next) {
+                    LockSupport.parkNanos(Math.min(next, nextReport) - now);
+                    continue;
+                }
+                long scheduled = next;
+                if (inFlight.get() >= maxInFlight) {
+                    dropped.incrementAndGet();
+                } else {
+                    inFlight.incrementAndGet();
+                    workers.execute(() -> {
+                        try {
+                            arrival(scheduled);
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                }
+                // Exponential gaps give a Poisson arrival process
+                next += (long) (-Math.log(1 - arrivals.nextDouble()) / rate * 1e9);
+            }
+
+            workers.shutdown();
+            if (!workers.awaitTermination(2, TimeUnit.MINUTES)) {
+                System.out.printf("%d requests still in flight after the drain period%n", inFlight.get());
+            }
+            peak = peak.max(report(System.nanoTime() - begin));
+            summary(System.nanoTime() - begin, start, peak, sample());
+        }
+
+        private void arrival(long scheduled) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < mix.validate) {
+                send("validate", scheduled, HttpRequest.newBuilder()
+                    .uri(URI.create(base + "/api/validate"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(VALIDATE_BODY))
+                    .build());
+                return;
+            }
+            HttpResponse<String> generated = send("generate", scheduled, HttpRequest.newBuilder()
+                .uri(URI.create(base + "/api/generate"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(mix.generateBody(random)))
+                .build());
+            if (generated == null) {
+                return;
+            }
+            try {
+                for (JsonNode file : MAPPER.readTree(generated.body()).path("files")) {
+                    send("download", System.nanoTime(), HttpRequest.newBuilder()
+                        .uri(URI.create(base + file.get("downloadUrl").asText()))
+                        .GET()
+                        .build());
+                }
+            } catch (IOException e) {
+                stats.get("generate").errors.incrementAndGet();
+            }
+        }
+
+        /**
+         * Send a request and record its latency from the scheduled start;
+         * returns null for anything but 200
+         */
+        private HttpResponse<String> send(String type, long scheduled, HttpRequest request) {
+            Stats s = stats.get(type);
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                s.latency.recordValue(System.nanoTime() - scheduled);
+                if (response.statusCode() == 200) {
+                    s.ok.incrementAndGet();
+                    return response;
+                }
+                if (response.statusCode() == 429) {
+                    s.throttled.incrementAndGet();
+                } else {
+                    s.errors.incrementAndGet();
+                }
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                s.errors.incrementAndGet();
+                return null;
+            } catch (IOException e) {
+                s.errors.incrementAndGet();
+                return null;
+            }
+        }
+
+        private Resources report(long elapsedNanos) {
+            long completed = 0;
+            long throttled = 0;
+            long errors = 0;
+            for (Stats s : stats.values()) {
+                s.roll();
+                completed += s.interval.getTotalCount();
+                long throttledNow = s.throttled.get();
+                long errorsNow = s.errors.get();
+                throttled += throttledNow - s.reportedThrottled;
+                errors += errorsNow - s.reportedErrors;
+                s.reportedThrottled = throttledNow;
+                s.reportedErrors = errorsNow;
+            }
+            Histogram generate = stats.get("generate").interval;
+            Histogram validate = stats.get("validate").interval;
+            Resources now = sample();
+            double intervalSeconds = (elapsedNanos - lastReportNanos) / 1e9;
+            lastReportNanos = elapsedNanos;
+            System.out.printf("%6ds %8.2f %9.1f %9.1f %9.1f %6d %6d %8d %9d %7.1f %9.1f%n",
+                TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), completed / intervalSeconds,
+                millis(generate.getValueAtPercentile(50)), millis(generate.getValueAtPercentile(99)),
+                millis(validate.getValueAtPercentile(99)), throttled, errors, inFlight.get(),
+                now.tempFiles, megabytes(now.tempBytes), megabytes(now.heapBytes));
+            return now;
+        }
+
+        private void summary(long elapsedNanos, Resources start, Resources peak, Resources end) {
+            double elapsed = elapsedNanos / 1e9;
+            System.out.printf("%n%-9s %8s %8s %7s %7s %9s %9s %9s %9s %9s%n",
+                "request", "count", "req/s", "429 %", "err %", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+                Stats s = entry.getValue();
+                Histogram h = s.total;
+                long count = s.ok.get() + s.throttled.get() + s.errors.get();
+                System.out.printf("%-9s %8d %8.2f %7.2f %7.2f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    entry.getKey(), count, count / elapsed, percent(s.throttled.get(), count),
+                    percent(s.errors.get(), count), millis(h.getValueAtPercentile(50)),
+                    millis(h.getValueAtPercentile(90)), millis(h.getValueAtPercentile(99)),
+                    millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue()));
+            }
+            System.out.printf("%ndropped arrivals (over %d in flight): %d%n", maxInFlight, dropped.get());
+            System.out.printf("temp dir %s: files %d -> %d (peak %d), %.1f -> %.1f MB (peak %.1f)%n",
+                tempDir, start.tempFiles, end.tempFiles, peak.tempFiles,
+                megabytes(start.tempBytes), megabytes(end.tempBytes), megabytes(peak.tempBytes));
+            System.out.printf("server heap: %.1f -> %.1f MB (peak sample %.1f)%n",
+                megabytes(start.heapBytes), megabytes(end.heapBytes), megabytes(peak.heapBytes));
+        }
+
+        private Resources sample() {
+            long files = 0;
+            long bytes = 0;
+            if (Files.isDirectory(tempDir)) {
+                try (Stream<Path> paths = Files.walk(tempDir)) {
+                    for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                        files++;
+                        bytes += sizeOf(path);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // Files come and go while the sweeper runs; the next sample catches up
+                }
+            }
+            return new Resources(files, bytes, heapBytes());
+        }
+
+        /**
+         * Heap in use on the server, summed over the pools in the Prometheus scrape
+         */
+        private long heapBytes() {
+            try {
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                    .uri(URI.create(management + "/actuator/prometheus"))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    return -1;
+                }
+                double heap = 0;
+                for (String line : response.body().split("\n")) {
+                    if (line.startsWith(HEAP_METRIC) && line.contains("area=\"heap\"")) {
+                        heap += Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+                    }
+                }
+                return (long) heap;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            } catch (IOException | RuntimeException e) {
+                return -1;
+            }
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double megabytes(long bytes) {
+        return bytes < 0 ? -1 : bytes / (1024.0 * 1024.0);
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+
+    /**
+     * What each generation asks for; the strength entries are RSA sizes or
+     * key type names, each with a relative weight
+     */
+    private static final class Mix {
+
+        private final String spec;
+        private final List<String> choices = new ArrayList<>();
+        private final List<Integer> weights = new ArrayList<>();
+        private final int totalWeight;
+        private final double ssh;
+        private final double password;
+        private final double validate;
+
+        Mix(String spec, double ssh, double password, double validate) {
+            this.spec = spec;
+            int total = 0;
+            for (String entry : spec.split(",")) {
+                String[] parts = entry.trim().split(":");
+                int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+                if (weight <= 0) {
+                    throw new IllegalArgumentException("Mix weight must be positive: " + entry);
+                }
+                choices.add(parts[0].trim());
+                weights.add(weight);
+                total += weight;
+            }
+            this.totalWeight = total;
+            this.ssh = ssh;
+            this.password = password;
+            this.validate = validate;
+        }
+
+        String generateBody(Random random) {
+            ObjectNode body = MAPPER.createObjectNode()
+                .put("name", "Load Test")
+                .put("email", "load@example.com")
+                .put("keyExpiry", 0)
+                .put("generateSshKey", random.nextDouble() < ssh);
+            String choice = pick(random);
+            if (choice.chars().allMatch(Character::isDigit)) {
+                body.put("keyType", "RSA").put("encryptionStrength", Integer.parseInt(choice));
+            } else {
+                body.put("keyType", choice);
+            }
+            if (random.nextDouble() < password) {
+                body.put("password", "load-test-passphrase");
+            }
+            return body.toString();
+        }
+
+        private String pick(Random random) {
+            int n = random.nextInt(totalWeight);
+            for (int i = 0; i < choices.size(); i++) {
+                n -= weights.get(i);
+                if (n < 0) {
+                    return choices.get(i);
+                }
+            }
+            return choices.get(choices.size() - 1);
+        }
+
+        @Override
+        public String toString() {
+            return "[" + spec + "] ssh=" + ssh + " password=" + password + " validate=" + validate;
+        }
+    }
+
+    private static final class Stats {
+
+        final Recorder latency = new Recorder(3);
+        final Histogram total = new Histogram(3);
+        final AtomicLong ok = new AtomicLong();
+        final AtomicLong throttled = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        Histogram interval;
+        long reportedThrottled;
+        long reportedErrors;
+
+        /**
+         * Take the histogram since the last report and add it to the total
+         */
+        void roll() {
+            interval = latency.getIntervalHistogram(interval);
+            total.add(interval);
+        }
+    }
+
+    private static final class Resources {
+
+        final long tempFiles;
+        final long tempBytes;
+        final long heapBytes;
+
+        Resources(long tempFiles, long tempBytes, long heapBytes) {
+            this.tempFiles = tempFiles;
+            this.tempBytes = tempBytes;
+            this.heapBytes = heapBytes;
+        }
+
+        Resources max(Resources other) {
+            return new Resources(Math.max(tempFiles, other.tempFiles), Math.max(tempBytes, other.tempBytes),
+                Math.max(heapBytes, other.heapBytes));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.keyjolt.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keyjolt.KeyjoltApplication;
+import com.keyjolt.util.ThreadFactories;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Security;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the platform and virtual thread modes under the same load.
+ *
+ * Each mode starts the application in-process on a random port with rate
+ * limits lifted, then a fixed number of clients loop through an Ed25519
+ * generation with SSH keys, a download of every generated file and a field
+ * validation. The report gives the peak platform thread count of the JVM
+ * and the latency percentiles per request type.
+ *
+ * Run with: mvn -Ploadtest -DskipTests integration-test
+ * Tune with -Dloadtest.clients=N and -Dloadtest.duration=seconds. The
+ * virtual mode needs a Java 21 runtime and is skipped otherwise.
+ */
+public final class ThreadModeComparison {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String GENERATE_BODY =
+        "{\"name\":\"Load Test\",\"email\":\"load@example.com\",\"keyExpiry\":0,"
+            + "\"generateSshKey\":true,\"keyType\":\"ED25519\"}";
+
+    private static final String VALIDATE_BODY = "field=email&value="
+        + URLEncoder.encode("load@example.com", StandardCharsets.UTF_8);
+
+    private ThreadModeComparison() {}
+
+    public static void main(String[] args) throws Exception {
+        Security.addProvider(new org.bouncycastle.jce.provider.BouncyCastleProvider());
+        int clients = Integer.getInteger("loadtest.clients", 200);
+        int seconds = Integer.getInteger("loadtest.duration", 30);
+
+        List<ModeResult> results = new ArrayList<>();
+        results.add(run("platform", false, clients, seconds));
+        if (ThreadFactories.virtualThreadsSupported()) {
+            results.add(run("virtual", true, clients, seconds));
+        } else {
+            System.out.printf("Skipping virtual mode: runtime is Java %d, virtual threads need Java 21%n",
+                Runtime.version().feature());
+        }
+
+        System.out.printf("%nclients=%d duration=%ds%n", clients, seconds);
+        System.out.printf("%-9s %-9s %8s %7s %9s %9s %9s %12s%n",
+            "mode", "request", "count", "errors", "p50 ms", "p99 ms", "max ms", "peak threads");
+        for (ModeResult result : results) {
+            for (Map.Entry<String, Histogram> entry : result.latencies.entrySet()) {
+                Histogram h = entry.getValue();
+                System.out.printf("%-9s %-9s %8d %7d %9.1f %9.1f %9.1f %12d%n",
+                    result.mode, entry.getKey(), h.getTotalCount(), result.errors.get(entry.getKey()).get(),
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(99)),
+                    millis(h.getMaxValue()), result.peakThreads);
+            }
+        }
+    }
+
+    private static ModeResult run(String mode, boolean virtual, int clients, int seconds) throws Exception {
+        Path tempDir = Files.createTempDirectory("keyjolt-loadtest-" + mode);
+        // Command line arguments, so they win over application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(KeyjoltApplication.class).run(
+            "--server.port=0",
+            "--spring.threads.virtual.enabled=" + virtual,
+            "--server.tomcat.threads.max=" + Math.max(200, clients),
+            "--app.temp-dir=" + tempDir,
+            "--app.rate-limit.requests-per-hour=100000000",
+            "--app.rate-limit.burst-capacity=1000000",
+            "--app.admission.queue-capacity=" + clients,
+            "--logging.level.root=WARN");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ModeResult result = new ModeResult(mode);
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+
+            HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            CountDownLatch done = new CountDownLatch(clients);
+            for (int i = 0; i < clients; i++) {
+                Thread worker = new Thread(() -> {
+                    try {
+                        while (System.nanoTime() < deadline) {
+                            iteration(client, "http://localhost:" + port, result);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }, "loadtest-client-" + i);
+                worker.setDaemon(true);
+                worker.start();
+            }
+            done.await();
+
+            // Client threads live in this JVM too; leave them out of the server's count
+            result.peakThreads = threads.getPeakThreadCount() - clients;
+            return result;
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void iteration(HttpClient client, String base, ModeResult result) {
+        HttpResponse<String> generated = send(client, result, "generate", HttpRequest.newBuilder()
+            .uri(URI.create(base + "/api/generate"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(GENERATE_BODY))
+            .build());
+        if (generated != null) {
+            try {
+                for (JsonNode file : MAPPER.readTree(generated.body()).path("files")) {
+                    send(client, result, "download", HttpRequest.newBuilder()
+                        .uri(URI.create(base + file.get("downloadUrl").asText()))
+                        .GET()
+                        .build());
+                }
+            } catch (Exception e) {
+                result.errors.get("generate").incrementAndGet();
+            }
+        }
+        send(client, result, "validate", HttpRequest.newBuilder()
+            .uri(URI.create(base + "/api/validate"))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(VALIDATE_BODY))
+            .build());
+    }
+
+    /**
+     * Send a request and record its latency; returns null for anything but 200
+     */
+    private static HttpResponse<String> send(HttpClient client, ModeResult result, String type,
+                                             HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            result.latencies.get(type).recordValue(System.nanoTime() - start);
+            if (response.statusCode() != 200) {
+                result.errors.get(type).incrementAndGet();
+                return null;
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.errors.get(type).incrementAndGet();
+            return null;
+        } catch (Exception e) {
+            result.errors.get(type).incrementAndGet();
+            return null;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class ModeResult {
+
+        final String mode;
+        final Map<String, Histogram> latencies = new LinkedHashMap<>();
+        final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+        int peakThreads;
+
+        ModeResult(String mode) {
+            this.mode = mode;
+            for (String type : List.of("generate", "download", "validate")) {
+                latencies.put(type, new ConcurrentHistogram(3));
+                errors.put(type, new AtomicLong());
+            }
+        }
+    }
+}
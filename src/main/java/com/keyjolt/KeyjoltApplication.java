@@ -27,9 +27,6 @@ public class KeyjoltApplication {
     private static final Logger logger = LoggerFactory.getLogger(KeyjoltApplication.class);
 
     public static void main(String[] args) {
-        // Add Bouncy Castle as security provider
-        java.security.Security.addProvider(new org.bouncycastle.jce.provider.BouncyCastleProvider());
-
         // Ensure log directory exists relative to the application
         try {
             Files.createDirectories(Paths.get(System.getProperty("user.dir"), "logs"));
@@ -0,0 +1,137 @@
+package com.keyjolt.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyring profiles defined by the operator under {@code app.keyring.profiles.<name>}.
+ * Settings left out fall back to the built-in "default" profile; a profile
+ * named like a built-in one replaces it.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.keyring")
+public class KeyringProperties {
+
+    // Profile used when a request does not name one
+    private String defaultProfile = "default";
+
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+
+    public String getDefaultProfile() {
+        return defaultProfile;
+    }
+
+    public void setDefaultProfile(String defaultProfile) {
+        this.defaultProfile = defaultProfile;
+    }
+
+    public Map<String, Profile> getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(Map<String, Profile> profiles) {
+        this.profiles = profiles;
+    }
+
+    public static class Profile {
+
+        // Preference order advertised in the self-signature, e.g. SHA512,SHA384,SHA256
+        private List<String> hashAlgorithms;
+
+        // Preference order advertised in the self-signature, e.g. AES256,AES128
+        private List<String> symmetricAlgorithms;
+
+        // Cipher protecting the secret key when a passphrase is given
+        private String s2kCipher;
+
+        // Hash used by iterated S2K to derive the key encryption key from the passphrase
+        private String s2kHash;
+
+        // iterated (every OpenPGP implementation) or argon2 (RFC 9580, AEAD protected)
+        private String s2kMode;
+
+        // Octets hashed by iterated S2K, 1024 to 65011712
+        private Long s2kIterations;
+
+        // Argon2 cost: passes, lanes and 2^exponent KiB of memory per derivation
+        private Integer argon2Passes;
+        private Integer argon2Parallelism;
+        private Integer argon2MemoryExponent;
+
+        public List<String> getHashAlgorithms() {
+            return hashAlgorithms;
+        }
+
+        public void setHashAlgorithms(List<String> hashAlgorithms) {
+            this.hashAlgorithms = hashAlgorithms;
+        }
+
+        public List<String> getSymmetricAlgorithms() {
+            return symmetricAlgorithms;
+        }
+
+        public void setSymmetricAlgorithms(List<String> symmetricAlgorithms) {
+            this.symmetricAlgorithms = symmetricAlgorithms;
+        }
+
+        public String getS2kCipher() {
+            return s2kCipher;
+        }
+
+        public void setS2kCipher(String s2kCipher) {
+            this.s2kCipher = s2kCipher;
+        }
+
+        public String getS2kHash() {
+            return s2kHash;
+        }
+
+        public void setS2kHash(String s2kHash) {
+            this.s2kHash = s2kHash;
+        }
+
+        public String getS2kMode() {
+            return s2kMode;
+        }
+
+        public void setS2kMode(String s2kMode) {
+            this.s2kMode = s2kMode;
+        }
+
+        public Long getS2kIterations() {
+            return s2kIterations;
+        }
+
+        public void setS2kIterations(Long s2kIterations) {
+            this.s2kIterations = s2kIterations;
+        }
+
+        public Integer getArgon2Passes() {
+            return argon2Passes;
+        }
+
+        public void setArgon2Passes(Integer argon2Passes) {
+            this.argon2Passes = argon2Passes;
+        }
+
+        public Integer getArgon2Parallelism() {
+            return argon2Parallelism;
+        }
+
+        public void setArgon2Parallelism(Integer argon2Parallelism) {
+            this.argon2Parallelism = argon2Parallelism;
+        }
+
+        public Integer getArgon2MemoryExponent() {
+            return argon2MemoryExponent;
+        }
+
+        public void setArgon2MemoryExponent(Integer argon2MemoryExponent) {
+            this.argon2MemoryExponent = argon2MemoryExponent;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.keyjolt.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keyjolt.metrics.MeteredRateLimiter;
+import com.keyjolt.model.KeyResponse;
+import com.keyjolt.ratelimit.ClientIpResolver;
+import com.keyjolt.ratelimit.RateLimitFilter;
+import com.keyjolt.ratelimit.RateLimiter;
+import com.keyjolt.ratelimit.StripedRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Rate limiter configuration.
+ *
+ * Single generations and batches have separate quotas. Both are enforced
+ * by a RateLimitFilter that takes one permit before the body is read; the
+ * batch endpoint charges the rest of the batch once it knows the size.
+ * With app.cluster.rate-limit=shared the quotas are kept in slot files
+ * under app.cluster.shared-dir and hold across all instances.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    // Endpoints that start a single key generation
+    private static final Set<String> GENERATION_PATHS = Set.of("/api/generate", "/api/jobs");
+    private static final Set<String> BATCH_PATHS = Set.of("/api/generate/batch");
+
+    @Value("${app.rate-limit.requests-per-hour:10}")
+    private int requestsPerHour;
+
+    @Value("${app.rate-limit.burst-capacity:5}")
+    private int burstCapacity;
+
+    @Value("${app.rate-limit.batch.keys-per-hour:200}")
+    private int batchKeysPerHour;
+
+    @Value("${app.rate-limit.batch.burst-capacity:50}")
+    private int batchBurstCapacity;
+
+    @Value("${app.rate-limit.slots:65536}")
+    private int slots;
+
+    // local = per instance, shared = one quota across every instance using app.cluster.shared-dir
+    @Value("${app.cluster.rate-limit:local}")
+    private String backend;
+
+    @Value("${app.cluster.shared-dir:${java.io.tmpdir}/keyjolt-shared}")
+    private String sharedDir;
+
+    @Bean
+    @Primary
+    public RateLimiter generationRateLimiter(MeterRegistry meterRegistry) throws IOException {
+        return new MeteredRateLimiter("generation",
+            newLimiter("generation", requestsPerHour, burstCapacity), meterRegistry);
+    }
+
+    /**
+     * Counts generated identities rather than requests
+     */
+    @Bean
+    public RateLimiter batchRateLimiter(MeterRegistry meterRegistry) throws IOException {
+        return new MeteredRateLimiter("batch",
+            newLimiter("batch", batchKeysPerHour, batchBurstCapacity), meterRegistry);
+    }
+
+    /**
+     * Runs before every other filter, including Spring Security and request logging
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            @Qualifier("generationRateLimiter") RateLimiter generationRateLimiter,
+            ClientIpResolver clientIpResolver,
+            ObjectMapper objectMapper) throws JsonProcessingException {
+        return register("rateLimitFilter", new RateLimitFilter(generationRateLimiter, clientIpResolver,
+            GENERATION_PATHS, requestsPerHour, rejectionBody(objectMapper)));
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> batchRateLimitFilter(
+            @Qualifier("batchRateLimiter") RateLimiter batchRateLimiter,
+            ClientIpResolver clientIpResolver,
+            ObjectMapper objectMapper) throws JsonProcessingException {
+        return register("batchRateLimitFilter", new RateLimitFilter(batchRateLimiter, clientIpResolver,
+            BATCH_PATHS, batchKeysPerHour, rejectionBody(objectMapper)));
+    }
+
+    private StripedRateLimiter newLimiter(String name, int perHour, int burst) throws IOException {
+        switch (backend) {
+            case "local":
+                return new StripedRateLimiter(perHour, burst, slots);
+            case "shared":
+                return StripedRateLimiter.shared(perHour, burst, slots,
+                    Path.of(sharedDir, "ratelimit-" + name + ".slots"));
+            default:
+                throw new IllegalStateException("app.cluster.rate-limit must be local or shared, got " + backend);
+        }
+    }
+
+    private FilterRegistrationBean<RateLimitFilter> register(String name, RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setName(name);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    private byte[] rejectionBody(ObjectMapper objectMapper) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(KeyResponse.error("Rate limit exceeded. Please try again later."));
+    }
+}
@@ -1,40 +1,146 @@
 package com.keyjolt.config;
 
+import com.keyjolt.logging.StageTimings;
+import com.keyjolt.ratelimit.ClientIpResolver;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
 
 import java.io.IOException;
 
 /**
- * Filter to log HTTP request method, path and status.
+ * Writes one JSON access log line per request with method, path, status,
+ * client, duration and the generation stage timings recorded on the
+ * request thread, for example:
+ *
+ * <pre>
+ * {"ts":1700000000000,"method":"POST","path":"/api/generate","status":200,"client":"10.0.0.1","ms":812.402,"stages":{"master_key":640.118,"armor":3.071}}
+ * </pre>
+ *
+ * Static assets are skipped before any timing or formatting. Download ids,
+ * bundle tokens and job ids are credentials for a user's keys, so those
+ * paths are logged as their route template.
  */
 @Component
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
+    static final String ACCESS_LOGGER = "com.keyjolt.access";
+
+    private static final Logger accessLog = LoggerFactory.getLogger(ACCESS_LOGGER);
+
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !accessLog.isInfoEnabled() || isStaticAsset(request.getRequestURI());
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
+        StageTimings timings = StageTimings.open();
         try {
             filterChain.doFilter(request, response);
         } finally {
-            long duration = System.currentTimeMillis() - start;
-            String uri = request.getRequestURI();
-            if (uri.startsWith("/css/") || uri.startsWith("/js/") || uri.startsWith("/images/")
-                    || uri.endsWith(".ico") || uri.endsWith(".png") || uri.endsWith(".webmanifest")) {
-                logger.debug("{} {} {} {}ms", request.getMethod(), uri, response.getStatus(), duration);
+            long duration = System.nanoTime() - start;
+            timings.close();
+            accessLog.info(format(request, response.getStatus(), duration, timings));
+        }
+    }
+
+    String format(HttpServletRequest request, int status, long durationNanos, StageTimings timings) {
+        StringBuilder line = new StringBuilder(160);
+        line.append("{\"ts\":").append(System.currentTimeMillis());
+        line.append(",\"method\":");
+        appendString(line, request.getMethod());
+        line.append(",\"path\":");
+        appendString(line, loggedPath(request));
+        line.append(",\"status\":").append(status);
+        line.append(",\"client\":");
+        appendString(line, clientIpResolver.resolve(request));
+        line.append(",\"ms\":");
+        appendMillis(line, durationNanos);
+        if (timings.size() > 0) {
+            line.append(",\"stages\":{");
+            for (int i = 0; i < timings.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendString(line, timings.stage(i));
+                line.append(':');
+                appendMillis(line, timings.nanos(i));
+            }
+            line.append('}');
+        }
+        return line.append('}').toString();
+    }
+
+    /**
+     * Route template for paths that carry a capability, the raw URI otherwise.
+     * Matched on the decoded path, so an encoded id is redacted as well.
+     */
+    static String loggedPath(HttpServletRequest request) {
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        if (path.startsWith("/download/bundle/")) {
+            return "/download/bundle/{token}";
+        }
+        if (path.startsWith("/download/")) {
+            return "/download/{id}";
+        }
+        if (path.startsWith("/api/jobs/")) {
+            return path.endsWith("/events") ? "/api/jobs/{jobId}/events" : "/api/jobs/{jobId}";
+        }
+        return request.getRequestURI();
+    }
+
+    private static boolean isStaticAsset(String uri) {
+        return uri.startsWith("/css/") || uri.startsWith("/js/") || uri.startsWith("/images/")
+            || uri.endsWith(".ico") || uri.endsWith(".png") || uri.endsWith(".webmanifest");
+    }
+
+    /**
+     * Milliseconds with microsecond precision, without floating point formatting
+     */
+    private static void appendMillis(StringBuilder line, long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        long fraction = micros % 1000;
+        line.append(micros / 1000).append('.');
+        if (fraction < 100) {
+            line.append('0');
+        }
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+
+    private static void appendString(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append("\\u00");
+                line.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
             } else {
-                logger.info("{} {} {} {}ms", request.getMethod(), uri, response.getStatus(), duration);
+                line.append(c);
             }
         }
+        line.append('"');
     }
 }
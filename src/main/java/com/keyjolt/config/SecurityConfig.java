@@ -1,13 +1,16 @@
 package com.keyjolt.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.core.env.Environment;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -22,6 +25,9 @@ public class SecurityConfig {
     @Value("${app.cors.allowed-origins:https://keyjolt.dev,https://keyjolt.piapps.dev}")
     private String allowedOrigins;
 
+    @Autowired
+    private Environment environment;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         // CSRF disabled: the app is fully stateless (no cookies/sessions), uses
@@ -31,13 +37,15 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(authorize -> authorize
                 .requestMatchers(
-                    "/", "/api/generate", "/api/validate",
+                    "/", "/api/generate", "/api/generate/batch", "/api/validate", "/api/validate/batch",
+                    "/api/jobs", "/api/jobs/**",
                     "/css/**", "/js/**", "/images/**",
                     "/favicon.ico", "/favicon-16x16.png", "/favicon-32x32.png",
                     "/apple-touch-icon.png", "/android-chrome-*.png",
                     "/site.webmanifest", "/robots.txt",
                     "/download/**"
                 ).permitAll()
+                .requestMatchers(managementPort()).permitAll()
                 .requestMatchers(
                     "/wp-admin/**", "/wordpress/**", "/wp-login.php"
                 ).denyAll()
@@ -64,6 +72,19 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Actuator endpoints, but only on the separate management server
+     * (management.server.port); the public port never serves them
+     */
+    private RequestMatcher managementPort() {
+        return request -> {
+            Integer port = environment.getProperty("local.management.port", Integer.class);
+            String path = request.getRequestURI();
+            return port != null && port == request.getLocalPort()
+                && (path.equals("/actuator/health") || path.equals("/actuator/prometheus"));
+        };
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration();
@@ -0,0 +1,34 @@
+package com.keyjolt.config;
+
+import com.keyjolt.random.RandomnessProvider;
+import com.keyjolt.service.KeyGenerationJobService;
+import com.keyjolt.service.KeyringProfiles;
+import com.keyjolt.service.RsaKeyPool;
+import com.keyjolt.service.StartupWarmup;
+import com.keyjolt.store.ArtifactStore;
+import com.keyjolt.util.FileUtils;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Beans created at startup even with spring.main.lazy-initialization:
+     * the pre-filled key pool, the temp directory owner, everything with
+     * scheduled work, the keyring profiles so a bad profile fails startup,
+     * and the warm-up that creates the rest in the background
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+            RsaKeyPool.class,
+            FileUtils.class,
+            ArtifactStore.class,
+            RandomnessProvider.class,
+            KeyGenerationJobService.class,
+            KeyringProfiles.class,
+            StartupWarmup.class);
+    }
+}
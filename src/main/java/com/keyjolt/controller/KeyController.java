@@ -1,22 +1,35 @@
 package com.keyjolt.controller;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keyjolt.metrics.GenerationMetrics;
+import com.keyjolt.model.JobStatus;
 import com.keyjolt.model.KeyRequest;
 import com.keyjolt.model.KeyResponse;
-import com.keyjolt.service.PgpKeyService;
-import com.keyjolt.service.SshKeyService;
-import com.keyjolt.util.FileUtils;
+import com.keyjolt.model.KeyType;
+import com.keyjolt.ratelimit.ClientIpResolver;
+import com.keyjolt.ratelimit.RateLimiter;
+import com.keyjolt.service.BatchGenerationService;
+import com.keyjolt.service.GenerationProgressListener;
+import com.keyjolt.service.KeyGenerationJobService;
+import com.keyjolt.service.KeyGenerationService;
+import com.keyjolt.service.KeyringProfiles;
+import com.keyjolt.service.ServiceOverloadedException;
+import com.keyjolt.store.ArtifactStore;
+import com.keyjolt.store.StoredArtifact;
+import com.keyjolt.validation.FieldResult;
+import com.keyjolt.validation.KeyFieldValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Bucket4j;
-import io.github.bucket4j.Refill;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -25,16 +38,18 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.Duration;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
-import org.springframework.scheduling.annotation.Scheduled;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Main controller for handling key generation requests and file downloads
@@ -43,27 +58,50 @@ import org.springframework.scheduling.annotation.Scheduled;
 public class KeyController {
 
     private static final Logger logger = LoggerFactory.getLogger(KeyController.class);
+
+    // Tomcat request attributes for handing a file to the connector's sendfile support
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // A form has only a handful of fields; anything larger is not a form
+    private static final int MAX_VALIDATE_FIELDS = 16;
     
     @Autowired
-    private PgpKeyService pgpKeyService;
+    private KeyGenerationService keyGenerationService;
     
     @Autowired
-    private SshKeyService sshKeyService;
+    private KeyGenerationJobService jobService;
     
     @Autowired
-    private FileUtils fileUtils;
+    private ArtifactStore artifactStore;
     
-    @Value("${app.rate-limit.requests-per-hour:10}")
-    private int requestsPerHour;
+    @Autowired
+    private BatchGenerationService batchGenerationService;
     
-    @Value("${app.rate-limit.burst-capacity:5}")
-    private int burstCapacity;
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+
+    @Autowired
+    private KeyringProfiles keyringProfiles;
+
+    @Autowired
+    @Qualifier("batchRateLimiter")
+    private RateLimiter batchRateLimiter;
 
-    @Value("${app.trusted-proxy:false}")
-    private boolean trustedProxy;
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GenerationMetrics metrics;
+
+    @Value("${app.batch.max-size:50}")
+    private int maxBatchSize;
     
-    // Rate limiting buckets per IP
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
     
     /**
      * Show the main key generation form
@@ -86,96 +124,226 @@ public class KeyController {
             BindingResult bindingResult,
             HttpServletRequest httpRequest) {
 
-        logger.info("Key generation request from {}", getClientIpAddress(httpRequest));
+        logger.debug("Key generation request from {}", clientIpResolver.resolve(httpRequest));
 
-        // Check rate limiting
-        String clientIp = getClientIpAddress(httpRequest);
-        Bucket bucket = getBucket(clientIp);
-        
-        if (!bucket.tryConsume(1)) {
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                .body(KeyResponse.error("Rate limit exceeded. Please try again later."));
+        ResponseEntity<KeyResponse> rejection = validateRequest(request, bindingResult);
+        if (rejection != null) {
+            return rejection;
         }
-        
-        // Validate request
-        if (bindingResult.hasErrors()) {
-            StringBuilder errors = new StringBuilder();
-            bindingResult.getFieldErrors().forEach(error -> 
-                errors.append(error.getDefaultMessage()).append("; "));
-            return ResponseEntity.badRequest()
-                .body(KeyResponse.error("Validation failed: " + errors.toString()));
+
+        try {
+            return ResponseEntity.ok(keyGenerationService.generate(request, GenerationProgressListener.NONE));
+        } catch (ServiceOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(KeyResponse.error("Server is busy. Please try again shortly."));
+        } catch (Exception e) {
+            logger.error("Failed to generate keys", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(KeyResponse.error("Key generation failed. Please try again."));
         }
-        
-        if (!request.hasValidEncryptionStrength()) {
-            return ResponseEntity.badRequest()
-                .body(KeyResponse.error("Encryption strength must be 2048, 3072, or 4096."));
+    }
+
+    /**
+     * Queue a key generation job and return its id immediately
+     */
+    @PostMapping("/api/jobs")
+    @ResponseBody
+    public ResponseEntity<?> submitJob(
+            @Valid @RequestBody KeyRequest request,
+            BindingResult bindingResult,
+            HttpServletRequest httpRequest) {
+
+        logger.debug("Key generation job request from {}", clientIpResolver.resolve(httpRequest));
+
+        ResponseEntity<KeyResponse> rejection = validateRequest(request, bindingResult);
+        if (rejection != null) {
+            return rejection;
         }
 
-        if (!request.hasValidPassword()) {
-            return ResponseEntity.badRequest()
-                .body(KeyResponse.error("Password must be at least 8 characters if provided."));
+        try {
+            JobStatus status = jobService.submit(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/jobs/" + status.getJobId())
+                .body(status);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Key generation job queue is full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(KeyResponse.error("Server is busy. Please try again shortly."));
+        }
+    }
+
+    /**
+     * Poll the status of a key generation job
+     */
+    @GetMapping("/api/jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        JobStatus status = jobService.getStatus(jobId);
+        if (status == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "Job not found."));
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    /**
+     * Stream stage updates of a key generation job as Server-Sent Events
+     */
+    @GetMapping(value = "/api/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String jobId) {
+        SseEmitter emitter = jobService.subscribe(jobId);
+        if (emitter == null) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(emitter);
+    }
 
+    /**
+     * Generate keys for a list of requests, streaming one NDJSON line per
+     * request as it completes. The whole batch is validated up front; the
+     * batch quota is charged one permit per request.
+     */
+    @PostMapping(value = "/api/generate/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> generateBatch(HttpServletRequest httpRequest,
+                                                             HttpServletResponse response) throws IOException {
+        String clientIp = clientIpResolver.resolve(httpRequest);
+        List<KeyRequest> requests;
         try {
-            List<KeyResponse.FileInfo> files = new ArrayList<>();
-            
-            // Generate PGP key pair
-            PgpKeyService.PgpKeyPair pgpKeys = pgpKeyService.generateKeyPair(request);
-            
-            // Add PGP files to response
-            files.add(new KeyResponse.FileInfo(
-                pgpKeys.getPublicKeyFile().getName(),
-                "/download/" + pgpKeys.getPublicKeyFile().getName(),
-                "pgp_public",
-                fileUtils.getFileSize(pgpKeys.getPublicKeyFile())
-            ));
-            
-            files.add(new KeyResponse.FileInfo(
-                pgpKeys.getPrivateKeyFile().getName(),
-                "/download/" + pgpKeys.getPrivateKeyFile().getName(),
-                "pgp_private",
-                fileUtils.getFileSize(pgpKeys.getPrivateKeyFile())
-            ));
-            
-            // Generate SSH key pair if requested
-            if (request.isGenerateSshKey()) {
-                SshKeyService.SshKeyPair sshKeys = sshKeyService.generateKeyPair(request);
-                
-                files.add(new KeyResponse.FileInfo(
-                    sshKeys.getPublicKeyFile().getName(),
-                    "/download/" + sshKeys.getPublicKeyFile().getName(),
-                    "ssh_public",
-                    fileUtils.getFileSize(sshKeys.getPublicKeyFile())
-                ));
-                
-                files.add(new KeyResponse.FileInfo(
-                    sshKeys.getPrivateKeyFile().getName(),
-                    "/download/" + sshKeys.getPrivateKeyFile().getName(),
-                    "ssh_private",
-                    fileUtils.getFileSize(sshKeys.getPrivateKeyFile())
-                ));
+            requests = readBatch(httpRequest.getInputStream());
+        } catch (JsonProcessingException e) {
+            requests = null;
+        }
+
+        // Errors are written directly since the declared body type has to be the emitter
+        if (requests == null) {
+            return writeError(response, HttpStatus.BAD_REQUEST, "Batch must be a JSON array of requests.");
+        }
+        logger.debug("Batch key generation request from {} ({} requests)", clientIp, requests.size());
+
+        if (requests.isEmpty()) {
+            return writeError(response, HttpStatus.BAD_REQUEST, "Batch must contain at least one request.");
+        }
+        if (requests.size() > maxBatchSize) {
+            return writeError(response, HttpStatus.BAD_REQUEST,
+                "Batch must not contain more than " + maxBatchSize + " requests.");
+        }
+
+        for (int i = 0; i < requests.size(); i++) {
+            KeyRequest request = requests.get(i);
+            List<String> constraintErrors = new ArrayList<>();
+            validator.validate(request).forEach(violation -> constraintErrors.add(violation.getMessage()));
+            String error = validationError(request, constraintErrors);
+            if (error != null) {
+                return writeError(response, HttpStatus.BAD_REQUEST, "Request " + i + ": " + error);
             }
+        }
 
-            logger.info("Keys generated successfully (strength={})", request.getEncryptionStrength());
+        // RateLimitFilter already took one permit for the request itself
+        if (requests.size() > 1) {
+            long waitMillis = batchRateLimiter.tryAcquire(clientIp, requests.size() - 1);
+            if (waitMillis > 0) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((waitMillis + 999) / 1000));
+                return writeError(response, HttpStatus.TOO_MANY_REQUESTS,
+                    "Batch quota exceeded. Please try again later.");
+            }
+        }
 
-            return ResponseEntity.ok(KeyResponse.success(
-                "Keys generated successfully! Download them below.",
-                pgpKeys.getKeyId(),
-                files
-            ));
-            
-        } catch (Exception e) {
-            logger.error("Failed to generate keys", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(KeyResponse.error("Key generation failed. Please try again."));
+        try {
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(batchGenerationService.generate(requests));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Batch generation queue is full");
+            response.setHeader(HttpHeaders.RETRY_AFTER, "30");
+            return writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy. Please try again shortly.");
         }
     }
+
+    /**
+     * Bind batch items one at a time, stopping one past the maximum so an
+     * oversized batch is rejected without binding the rest of the array.
+     * Returns null if the body is not an array of request objects.
+     */
+    private List<KeyRequest> readBatch(InputStream body) throws IOException {
+        List<KeyRequest> requests = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return requests;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                return null;
+            }
+            while (requests.size() <= maxBatchSize && (token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    return null;
+                }
+                requests.add(objectMapper.readValue(parser, KeyRequest.class));
+            }
+        }
+        return requests;
+    }
+
+    private <T> ResponseEntity<T> writeError(HttpServletResponse response, HttpStatus status, String error)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), KeyResponse.error(error));
+        return null;
+    }
+
+    /**
+     * Request validation shared by the synchronous and job-based generation
+     * endpoints; rate limiting has already been applied by RateLimitFilter.
+     * Returns null if the request may proceed.
+     */
+    private ResponseEntity<KeyResponse> validateRequest(KeyRequest request, BindingResult bindingResult) {
+        List<String> constraintErrors = new ArrayList<>();
+        bindingResult.getFieldErrors().forEach(error -> constraintErrors.add(error.getDefaultMessage()));
+
+        String error = validationError(request, constraintErrors);
+        return error != null ? ResponseEntity.badRequest().body(KeyResponse.error(error)) : null;
+    }
+
+    /**
+     * Combine bean validation messages with the checks that depend on
+     * several fields. Returns null if the request is valid.
+     */
+    private String validationError(KeyRequest request, List<String> constraintErrors) {
+        if (!constraintErrors.isEmpty()) {
+            StringBuilder errors = new StringBuilder();
+            constraintErrors.forEach(error -> errors.append(error).append("; "));
+            return "Validation failed: " + errors;
+        }
+        
+        if (!request.hasValidKeyType()) {
+            return "Key type must be RSA, ED25519, ECDSA_P256 or ECDSA_P384.";
+        }
+
+        if (request.resolveKeyType() == KeyType.RSA && !request.hasValidEncryptionStrength()) {
+            return "Encryption strength must be 2048, 3072, or 4096.";
+        }
+
+        if (!request.hasValidPassword()) {
+            return "Password must be at least 8 characters if provided.";
+        }
+
+        if (!keyringProfiles.contains(request.getProfile())) {
+            return "Unknown keyring profile.";
+        }
+
+        return null;
+    }
     
     /**
      * Download generated key files
      */
     @GetMapping("/download/{filename}")
-    public ResponseEntity<?> downloadFile(@PathVariable String filename) {
+    public ResponseEntity<?> downloadFile(@PathVariable String filename,
+                                          HttpServletRequest request,
+                                          HttpServletResponse response) {
         try {
             if (filename.contains("..") || filename.contains("/") || filename.contains("\\")
                     || filename.contains("\0")) {
@@ -184,162 +352,98 @@ public class KeyController {
                     .body(Map.of("error", "Invalid filename."));
             }
 
-            java.nio.file.Path tempBase = java.nio.file.Path.of(fileUtils.getTempDir()).toAbsolutePath().normalize();
-            java.nio.file.Path filePath = tempBase.resolve(filename).normalize();
-
-            if (!filePath.startsWith(tempBase)) {
-                logger.warn("Path traversal attempt blocked: {}", filename);
-                return ResponseEntity.badRequest()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(Map.of("error", "Invalid filename."));
-            }
-
-            if (!java.nio.file.Files.exists(filePath)) {
+            StoredArtifact artifact = artifactStore.find(filename);
+            metrics.recordDownload("file", artifact != null);
+            if (artifact == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(Map.of("error", "File not found."));
             }
 
-            Resource fileResource = new UrlResource(filePath.toUri());
+            String disposition = "attachment; filename=\"" + artifact.getFilename() + "\"";
 
-            if (!fileResource.exists() || !fileResource.isReadable()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(Map.of("error", "File is not readable."));
+            // File-backed artifact on Tomcat NIO: let the connector sendfile() it
+            Path path = artifact.getPath();
+            if (path != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, artifact.getSize());
+                return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(artifact.getSize())
+                    .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
+                    .build();
             }
 
-            return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + filename + "\"")
-                .body(fileResource);
+            // Otherwise write straight into the servlet stream: the backing array
+            // for in-memory artifacts, a buffered copy for files
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setContentLengthLong(artifact.getSize());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition);
+            artifact.writeTo(response.getOutputStream());
+            return null;
 
         } catch (Exception e) {
-            logger.error("Download failed for file: {}", filename, e);
+            // The id is a credential for the file; never log it
+            logger.error("Download failed", e);
+            if (response.isCommitted()) {
+                return null;
+            }
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(Map.of("error", "Download failed."));
         }
     }
+
     /**
-     * Validate individual form fields via AJAX
+     * Download all key files of one generation as a ZIP built on the fly
      */
-    @PostMapping("/api/validate")
-    @ResponseBody
-    public ResponseEntity<Map<String, Object>> validateField(
-            @RequestParam String field,
-            @RequestParam String value) {
-        
-        Map<String, Object> response = new HashMap<>();
-        boolean isValid = true;
-        String message = "";
-        
-        switch (field) {
-            case "name":
-                if (value == null || value.trim().isEmpty()) {
-                    isValid = false;
-                    message = "Name is required";
-                } else if (value.length() > 50) {
-                    isValid = false;
-                    message = "Name must not exceed 50 characters";
-                } else if (!value.matches("^[a-zA-Z0-9\\s]+$")) {
-                    isValid = false;
-                    message = "Name can only contain letters, numbers, and spaces";
-                }
-                break;
-                
-            case "email":
-                if (value == null || value.trim().isEmpty()) {
-                    isValid = false;
-                    message = "Email is required";
-                } else if (!value.matches("^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$")) {
-                    isValid = false;
-                    message = "Please enter a valid email address";
-                }
-                break;
-                
-            case "keyExpiry":
-                try {
-                    int expiry = Integer.parseInt(value);
-                    if (expiry < 0) {
-                        isValid = false;
-                        message = "Key expiry must be 0 or positive";
-                    } else if (expiry > 3650) {
-                        isValid = false;
-                        message = "Maximum key expiry is 3650 days (10 years)";
-                    }
-                } catch (NumberFormatException e) {
-                    isValid = false;
-                    message = "Key expiry must be a valid number";
-                }
-                break;
-
-            case "password":
-                if (value != null && !value.isEmpty() && value.length() < 8) {
-                    isValid = false;
-                    message = "Password must be at least 8 characters";
-                }
-                break;
+    @GetMapping("/download/bundle/{token}")
+    public ResponseEntity<?> downloadBundle(@PathVariable String token, HttpServletResponse response) {
+        List<StoredArtifact> artifacts = artifactStore.findBundle(token);
+        metrics.recordDownload("bundle", artifacts != null);
+        if (artifacts == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", "File not found."));
+        }
 
-            default:
-                break;
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"keyjolt-keys.zip\"");
+        try (ZipOutputStream zip = new ZipOutputStream(response.getOutputStream())) {
+            for (StoredArtifact artifact : artifacts) {
+                zip.putNextEntry(new ZipEntry(artifact.getFilename()));
+                artifact.writeTo(zip);
+                zip.closeEntry();
+            }
+        } catch (IOException e) {
+            logger.error("Bundle download failed", e);
         }
-        
-        response.put("valid", isValid);
-        response.put("message", message);
-        
-        return ResponseEntity.ok(response);
+        return null;
     }
-    
+
     /**
-     * Get rate limiting bucket for IP address
+     * Validate individual form fields via AJAX
      */
-    private Bucket getBucket(String ip) {
-        return buckets.computeIfAbsent(ip, k -> {
-            Bandwidth limit = Bandwidth.classic(requestsPerHour, Refill.intervally(requestsPerHour, Duration.ofHours(1)));
-            Bandwidth burst = Bandwidth.classic(burstCapacity, Refill.greedy(burstCapacity, Duration.ofMinutes(1)));
-            return Bucket4j.builder()
-                .addLimit(limit)
-                .addLimit(burst)
-                .build();
-        });
-    }
-    
-    @Scheduled(fixedRate = 3600000)
-    public void evictStaleBuckets() {
-        int before = buckets.size();
-        Iterator<Map.Entry<String, Bucket>> it = buckets.entrySet().iterator();
-        while (it.hasNext()) {
-            Map.Entry<String, Bucket> entry = it.next();
-            if (entry.getValue().getAvailableTokens() >= requestsPerHour) {
-                it.remove();
-            }
-        }
-        int removed = before - buckets.size();
-        if (removed > 0) {
-            logger.debug("Evicted {} stale rate-limit buckets", removed);
-        }
+    @PostMapping("/api/validate")
+    @ResponseBody
+    public ResponseEntity<FieldResult> validateField(
+            @RequestParam String field,
+            @RequestParam String value) {
+        return ResponseEntity.ok(KeyFieldValidator.validate(field, value));
     }
 
     /**
-     * Get client IP address from request.
-     * Only trusts proxy headers when app.trusted-proxy=true (i.e. behind a
-     * known reverse proxy like nginx). Otherwise falls back to remoteAddr
-     * so rate limiting cannot be trivially bypassed via spoofed headers.
+     * Validate a whole form in one call, returning a result per known field.
+     * The frontend checks fields locally and only confirms them here, so one
+     * debounced request replaces a request per keystroke.
      */
-    private String getClientIpAddress(HttpServletRequest request) {
-        if (trustedProxy) {
-            String xForwardedFor = request.getHeader("X-Forwarded-For");
-            if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-                return xForwardedFor.split(",")[0].trim();
-            }
-
-            String xRealIp = request.getHeader("X-Real-IP");
-            if (xRealIp != null && !xRealIp.isEmpty()) {
-                return xRealIp;
-            }
+    @PostMapping(value = "/api/validate/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<Map<String, FieldResult>> validateFields(@RequestBody Map<String, String> fields) {
+        if (fields.size() > MAX_VALIDATE_FIELDS) {
+            return ResponseEntity.badRequest().build();
         }
-
-        return request.getRemoteAddr();
+        return ResponseEntity.ok(KeyFieldValidator.validateAll(fields));
     }
 }
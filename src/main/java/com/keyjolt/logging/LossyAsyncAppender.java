@@ -0,0 +1,20 @@
+package com.keyjolt.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Async appender that sheds everything below ERROR once the queue runs
+ * short, rather than only TRACE to INFO as {@link AsyncAppender} does.
+ * Combined with {@code neverBlock} the request path never waits on log I/O,
+ * and the queue space kept free below the discarding threshold is left
+ * for errors.
+ */
+public class LossyAsyncAppender extends AsyncAppender {
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        return event.getLevel().toInt() < Level.ERROR_INT;
+    }
+}
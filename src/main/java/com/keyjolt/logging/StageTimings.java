@@ -0,0 +1,62 @@
+package com.keyjolt.logging;
+
+/**
+ * Generation stage timings collected for the access log line of the
+ * current request.
+ *
+ * The request logging filter opens a collection on the request thread and
+ * every stage recorded on that thread until it is closed ends up in the
+ * access log. Stages recorded on other threads, or outside a request, are
+ * ignored. Each thread reuses one instance, so recording never allocates.
+ */
+public final class StageTimings {
+
+    static final int MAX_STAGES = 8;
+
+    private static final ThreadLocal<StageTimings> CURRENT = ThreadLocal.withInitial(StageTimings::new);
+
+    private final String[] stages = new String[MAX_STAGES];
+    private final long[] nanos = new long[MAX_STAGES];
+    private int count;
+    private boolean open;
+
+    private StageTimings() {}
+
+    /**
+     * Start collecting on the calling thread, discarding anything left over
+     */
+    public static StageTimings open() {
+        StageTimings timings = CURRENT.get();
+        timings.count = 0;
+        timings.open = true;
+        return timings;
+    }
+
+    /**
+     * Record a stage for the calling thread's open collection, if any
+     */
+    public static void record(String stage, long durationNanos) {
+        StageTimings timings = CURRENT.get();
+        if (timings.open && timings.count < MAX_STAGES) {
+            timings.stages[timings.count] = stage;
+            timings.nanos[timings.count] = durationNanos;
+            timings.count++;
+        }
+    }
+
+    public void close() {
+        open = false;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public String stage(int index) {
+        return stages[index];
+    }
+
+    public long nanos(int index) {
+        return nanos[index];
+    }
+}
@@ -0,0 +1,130 @@
+package com.keyjolt.metrics;
+
+import com.keyjolt.logging.StageTimings;
+import com.keyjolt.model.KeyRequest;
+import com.keyjolt.model.KeyType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timers for the stages of the generation pipeline, download counters and
+ * the time to the first successful generation.
+ *
+ * Stage timers are tagged with the key type and RSA strength ("none" for
+ * curve keys) and publish histogram buckets, so latency percentiles can be
+ * aggregated across nodes. Stages recorded on a request thread also go
+ * into that request's access log line.
+ */
+@Component
+public class GenerationMetrics {
+
+    public static final String STAGE_TIMER = "keyjolt.generation.stage";
+    public static final String DOWNLOAD_COUNTER = "keyjolt.downloads";
+    public static final String FIRST_GENERATION_GAUGE = "keyjolt.startup.first.generation";
+    public static final String PASSPHRASE_TIMER = "keyjolt.passphrase.protection";
+
+    // Stage names used as the "stage" tag
+    public static final String MASTER_KEY = "master_key";
+    public static final String SUBKEY = "subkey";
+    public static final String KEYRING_BUILD = "keyring_build";
+    public static final String PASSPHRASE = "passphrase";
+    public static final String ARMOR = "armor";
+    public static final String SSH_KEY = "ssh_key";
+    public static final String SSH_ENCODE = "ssh_encode";
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerationMetrics.class);
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final AtomicLong firstGenerationMillis = new AtomicLong(-1);
+
+    // Meters by tag values, so the hot path skips the builder and registry lookup
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> passphraseTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> downloadCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Record a stage that started at {@code startNanos} and finished now.
+     * Returns the current time so consecutive stages can be chained.
+     */
+    public long recordStage(String stage, KeyRequest request, long startNanos) {
+        long now = System.nanoTime();
+        KeyType keyType = request.resolveKeyType();
+        String strength = keyType == KeyType.RSA ? String.valueOf(request.getEncryptionStrength()) : "none";
+        stageTimers.computeIfAbsent(stage + '/' + keyType.name() + '/' + strength, key ->
+            Timer.builder(STAGE_TIMER)
+                .description("Time spent in each stage of key generation")
+                .tag("stage", stage)
+                .tag("type", keyType.name())
+                .tag("strength", strength)
+                .publishPercentileHistogram()
+                .register(registry))
+            .record(now - startNanos, TimeUnit.NANOSECONDS);
+        StageTimings.record(stage, now - startNanos);
+        return now;
+    }
+
+    /**
+     * Record passphrase protection that started at {@code startNanos} and
+     * finished now: as a generation stage, and in a timer tagged with the
+     * keyring profile and S2K mode, so the latency a profile's S2K cost adds
+     * can be read directly. Returns the current time.
+     */
+    public long recordPassphraseProtection(String profile, String s2kMode, KeyRequest request, long startNanos) {
+        long now = recordStage(PASSPHRASE, request, startNanos);
+        passphraseTimers.computeIfAbsent(profile + '/' + s2kMode, key ->
+            Timer.builder(PASSPHRASE_TIMER)
+                .description("Time spent protecting secret keys with the passphrase")
+                .tag("profile", profile)
+                .tag("s2k", s2kMode)
+                .publishPercentileHistogram()
+                .register(registry))
+            .record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * Note a successful generation. The first one fixes the time from JVM
+     * start to the first key handed out, which covers startup, lazy bean
+     * creation and cold crypto paths in one number.
+     */
+    public void recordGenerationSuccess() {
+        if (firstGenerationMillis.get() >= 0) {
+            return;
+        }
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (firstGenerationMillis.compareAndSet(-1, uptime)) {
+            TimeGauge.builder(FIRST_GENERATION_GAUGE, firstGenerationMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start to the first successful key generation")
+                .register(registry);
+            logger.info("First successful generation {} ms after JVM start", uptime);
+        }
+    }
+
+    /**
+     * Count a download attempt for a single file or a bundle
+     */
+    public void recordDownload(String kind, boolean found) {
+        String result = found ? "hit" : "miss";
+        downloadCounters.computeIfAbsent(kind + '/' + result, key ->
+            Counter.builder(DOWNLOAD_COUNTER)
+                .description("Download attempts by outcome")
+                .tag("kind", kind)
+                .tag("result", result)
+                .register(registry))
+            .increment();
+    }
+}
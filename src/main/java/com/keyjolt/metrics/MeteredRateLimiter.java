@@ -0,0 +1,58 @@
+package com.keyjolt.metrics;
+
+import com.keyjolt.ratelimit.RateLimiter;
+import com.keyjolt.ratelimit.StripedRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Rate limiter decorator that counts rejections. For a
+ * {@link StripedRateLimiter} it also exposes how many slots of the table are
+ * in use, the constant-memory counterpart of a per-client bucket map's size.
+ */
+public class MeteredRateLimiter implements RateLimiter, AutoCloseable {
+
+    private final RateLimiter delegate;
+    private final Counter rejections;
+
+    public MeteredRateLimiter(String name, RateLimiter delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.rejections = Counter.builder("keyjolt.ratelimit.rejections")
+            .description("Requests rejected by the rate limiter")
+            .tag("limiter", name)
+            .register(registry);
+
+        if (delegate instanceof StripedRateLimiter striped) {
+            Gauge.builder("keyjolt.ratelimit.slots.active", striped, StripedRateLimiter::activeSlots)
+                .description("Rate-limit slots holding quota state from the last hour")
+                .tag("limiter", name)
+                .register(registry);
+            Gauge.builder("keyjolt.ratelimit.slots", striped, StripedRateLimiter::getSlotCount)
+                .description("Rate-limit table size")
+                .tag("limiter", name)
+                .register(registry);
+        }
+    }
+
+    @Override
+    public long tryAcquire(String key, int permits) {
+        long wait = delegate.tryAcquire(key, permits);
+        if (wait > 0) {
+            rejections.increment();
+        }
+        return wait;
+    }
+
+    @Override
+    public int available(String key) {
+        return delegate.available(key);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
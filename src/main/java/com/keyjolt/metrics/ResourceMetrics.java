@@ -0,0 +1,108 @@
+package com.keyjolt.metrics;
+
+import com.keyjolt.model.KeyRequest;
+import com.keyjolt.service.AdmissionController;
+import com.keyjolt.service.RsaKeyPool;
+import com.keyjolt.store.ArtifactStore;
+import com.keyjolt.store.InMemoryArtifactStore;
+import com.keyjolt.util.FileUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+/**
+ * Gauges over state the services already track: secure-deletion backlog,
+ * temp-dir and artifact store usage, admission control and the RSA key pool.
+ * Values are read at scrape time, so nothing is counted on the request path.
+ */
+@Component
+public class ResourceMetrics implements MeterBinder {
+
+    @Autowired
+    private FileUtils fileUtils;
+
+    @Autowired
+    private ArtifactStore artifactStore;
+
+    @Autowired
+    private AdmissionController admissionController;
+
+    @Autowired
+    private RsaKeyPool rsaKeyPool;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("keyjolt.deletion.pending", fileUtils, FileUtils::getPendingDeletions)
+            .description("Files waiting for scheduled secure deletion")
+            .register(registry);
+        Gauge.builder("keyjolt.deletion.lag", fileUtils, FileUtils::getDeletionLagMillis)
+            .description("How late the most recent batch of deletions was dispatched")
+            .baseUnit("milliseconds")
+            .register(registry);
+        Gauge.builder("keyjolt.tempdir.size", this, ResourceMetrics::tempDirBytes)
+            .description("Bytes on disk in the key temp directory")
+            .baseUnit("bytes")
+            .register(registry);
+
+        if (artifactStore instanceof InMemoryArtifactStore memoryStore) {
+            Gauge.builder("keyjolt.artifacts.size", memoryStore, InMemoryArtifactStore::getStoredBytes)
+                .description("Bytes held by the in-memory artifact store")
+                .baseUnit("bytes")
+                .register(registry);
+        }
+
+        Gauge.builder("keyjolt.admission.in.flight", admissionController, AdmissionController::getInFlight)
+            .description("Generations currently running")
+            .register(registry);
+        Gauge.builder("keyjolt.admission.waiting", admissionController, AdmissionController::getWaiting)
+            .description("Generations queued for a slot")
+            .register(registry);
+        Gauge.builder("keyjolt.admission.limit", admissionController, AdmissionController::getLimit)
+            .description("Current concurrency limit")
+            .register(registry);
+        FunctionCounter.builder("keyjolt.admission.rejections", admissionController,
+                AdmissionController::getRejectedCount)
+            .description("Generations rejected because the queue was full or the wait timed out")
+            .register(registry);
+
+        for (int strength : KeyRequest.ALLOWED_STRENGTHS) {
+            Gauge.builder("keyjolt.keypool.available", rsaKeyPool, pool -> pool.available(strength))
+                .description("Pre-generated RSA key pairs ready to use")
+                .tag("strength", String.valueOf(strength))
+                .register(registry);
+        }
+    }
+
+    private double tempDirBytes() {
+        Path tempPath = Paths.get(fileUtils.getTempDir());
+        if (!Files.isDirectory(tempPath)) {
+            return 0;
+        }
+        try (Stream<Path> paths = Files.walk(tempPath)) {
+            return paths.filter(Files::isRegularFile).mapToLong(ResourceMetrics::sizeOf).sum();
+        } catch (IOException | UncheckedIOException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Size of a file that may be securely deleted while the directory is walked
+     */
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
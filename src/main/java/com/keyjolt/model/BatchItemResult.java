@@ -0,0 +1,35 @@
+package com.keyjolt.model;
+
+/**
+ * One line of a batch generation response: the outcome for the request at
+ * the given position in the submitted batch
+ */
+public class BatchItemResult {
+
+    private int index;
+    private KeyResponse result;
+
+    public BatchItemResult() {}
+
+    public BatchItemResult(int index, KeyResponse result) {
+        this.index = index;
+        this.result = result;
+    }
+
+    // Getters and setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public KeyResponse getResult() {
+        return result;
+    }
+
+    public void setResult(KeyResponse result) {
+        this.result = result;
+    }
+}
@@ -0,0 +1,15 @@
+package com.keyjolt.model;
+
+/**
+ * Stages reported while a key generation request is being processed
+ */
+public enum GenerationStage {
+    QUEUED,
+    MASTER_KEY,
+    SUBKEY,
+    PROTECTING,
+    ARMORING,
+    SSH,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,37 @@
+package com.keyjolt.model;
+
+/**
+ * Immutable snapshot of an asynchronous key generation job, returned by the
+ * job API and pushed to Server-Sent Events subscribers
+ */
+public class JobStatus {
+
+    private final String jobId;
+    private final GenerationStage stage;
+    private final boolean done;
+    private final KeyResponse result;
+
+    public JobStatus(String jobId, GenerationStage stage, boolean done, KeyResponse result) {
+        this.jobId = jobId;
+        this.stage = stage;
+        this.done = done;
+        this.result = result;
+    }
+
+    // Getters
+    public String getJobId() {
+        return jobId;
+    }
+
+    public GenerationStage getStage() {
+        return stage;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public KeyResponse getResult() {
+        return result;
+    }
+}
@@ -1,6 +1,9 @@
 package com.keyjolt.model;
 
-import jakarta.validation.constraints.*;
+import com.keyjolt.validation.KeyField;
+import com.keyjolt.validation.KeyFieldValidator;
+import com.keyjolt.validation.ValidField;
+
 import java.util.Set;
 
 /**
@@ -8,29 +11,28 @@ import java.util.Set;
  */
 public class KeyRequest {
     
-    @NotBlank(message = "Name is required")
-    @Size(max = 50, message = "Name must not exceed 50 characters")
-    @Pattern(regexp = "^[a-zA-Z0-9\\s]+$", message = "Name can only contain letters, numbers, and spaces")
+    @ValidField(KeyField.NAME)
     private String name;
     
-    @NotBlank(message = "Email is required")
-    @Email(message = "Please enter a valid email address")
+    @ValidField(KeyField.EMAIL)
     private String email;
     
-    private static final Set<Integer> ALLOWED_STRENGTHS = Set.of(2048, 3072, 4096);
+    public static final Set<Integer> ALLOWED_STRENGTHS = Set.of(2048, 3072, 4096);
 
-    @NotNull(message = "Encryption strength is required")
+    // Only used for RSA keys
     private Integer encryptionStrength;
+
+    // Name of a KeyType constant; RSA when omitted
+    private String keyType;
     
-    @NotNull(message = "Key expiry is required")
-    @Min(value = 0, message = "Key expiry must be 0 or positive")
-    @Max(value = 3650, message = "Maximum key expiry is 3650 days (10 years)")
+    @ValidField(KeyField.KEY_EXPIRY)
     private Integer keyExpiry;
     
-    private static final int MIN_PASSWORD_LENGTH = 8;
-
     private boolean generateSshKey = false;
     private String password;
+
+    // Name of a keyring profile; the configured default when omitted
+    private String profile;
     
     // Default constructor
     public KeyRequest() {}
@@ -74,6 +76,26 @@ public class KeyRequest {
         return encryptionStrength != null && ALLOWED_STRENGTHS.contains(encryptionStrength);
     }
     
+    public String getKeyType() {
+        return keyType;
+    }
+
+    public void setKeyType(String keyType) {
+        this.keyType = keyType;
+    }
+
+    public boolean hasValidKeyType() {
+        return KeyFieldValidator.validateKeyType(keyType).isValid();
+    }
+
+    /**
+     * The requested key type, defaulting to RSA when none was given
+     */
+    public KeyType resolveKeyType() {
+        KeyType type = KeyType.fromName(keyType);
+        return type != null ? type : KeyType.RSA;
+    }
+    
     public Integer getKeyExpiry() {
         return keyExpiry;
     }
@@ -98,25 +120,33 @@ public class KeyRequest {
         this.password = password;
     }
 
+    public String getProfile() {
+        return profile;
+    }
+
+    public void setProfile(String profile) {
+        this.profile = profile;
+    }
+
     /**
      * Returns true if no password was given, or if the given password meets
      * minimum strength requirements (>= 8 characters).
      */
     public boolean hasValidPassword() {
-        return password == null || password.isEmpty() || password.length() >= MIN_PASSWORD_LENGTH;
+        return KeyFieldValidator.validatePassword(password).isValid();
     }
 
     /**
      * Get sanitized name for file naming
      */
     public String getSanitizedName() {
-        return name != null ? name.replaceAll("[^a-zA-Z0-9]", "_") : "";
+        return KeyFieldValidator.sanitizeName(name);
     }
     
     /**
      * Get sanitized email for file naming
      */
     public String getSanitizedEmail() {
-        return email != null ? email.replaceAll("[^a-zA-Z0-9@.]", "_") : "";
+        return KeyFieldValidator.sanitizeEmail(email);
     }
 }
@@ -12,7 +12,9 @@ public class KeyResponse {
     private boolean success;
     private String message;
     private String keyId;
+    private String algorithm;
     private List<FileInfo> files;
+    private String bundleUrl;
     private String error;
     
     public KeyResponse() {
@@ -65,6 +67,14 @@ public class KeyResponse {
         this.keyId = keyId;
     }
     
+    public String getAlgorithm() {
+        return algorithm;
+    }
+    
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+    
     public List<FileInfo> getFiles() {
         return Collections.unmodifiableList(files);
     }
@@ -77,6 +87,14 @@ public class KeyResponse {
         }
     }
     
+    public String getBundleUrl() {
+        return bundleUrl;
+    }
+    
+    public void setBundleUrl(String bundleUrl) {
+        this.bundleUrl = bundleUrl;
+    }
+    
     public String getError() {
         return error;
     }
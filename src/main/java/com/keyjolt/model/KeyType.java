@@ -0,0 +1,39 @@
+package com.keyjolt.model;
+
+/**
+ * Key algorithm families offered to users. Curve types generate in
+ * microseconds; RSA takes seconds at higher strengths.
+ */
+public enum KeyType {
+    RSA("RSA"),
+    ED25519("Ed25519 / X25519"),
+    ECDSA_P256("ECDSA / ECDH P-256"),
+    ECDSA_P384("ECDSA / ECDH P-384");
+
+    private static final KeyType[] VALUES = values();
+
+    private final String displayName;
+
+    KeyType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Look up a key type by its constant name, or null if there is none
+     */
+    public static KeyType fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (KeyType type : VALUES) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.keyjolt.random;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Striped SP 800-90A DRBG instances at 256-bit strength, seeded from the OS.
+ *
+ * Each thread is mapped to one of a fixed number of stripes, so concurrent
+ * prime searches draw from different generators instead of queueing on one
+ * lock. Stripes rather than thread locals keep the number of generators
+ * bounded when requests run on virtual threads. Every stripe is reseeded
+ * from the OS on a schedule.
+ */
+@Component
+@ConditionalOnProperty(name = "app.random.provider", havingValue = "drbg", matchIfMissing = true)
+public class DrbgRandomnessProvider implements RandomnessProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(DrbgRandomnessProvider.class);
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    @Value("${app.random.stripes:0}")
+    private int stripes;
+
+    private SecureRandom[] generators;
+    private int mask;
+
+    @PostConstruct
+    public void init() {
+        int count = stripes > 0 ? stripes : 2 * Runtime.getRuntime().availableProcessors();
+        int size = Integer.highestOneBit(Math.min(count, 1 << 16));
+        size = size < count ? size << 1 : size;
+
+        generators = new SecureRandom[size];
+        mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            generators[i] = build(i);
+        }
+        logger.info("DRBG randomness ready (stripes={}, mechanism={})", size, generators[0]);
+    }
+
+    @Override
+    public SecureRandom strong() {
+        // Consecutive pool thread ids land on different stripes
+        long id = Thread.currentThread().getId();
+        return generators[(int) ((id * GOLDEN_GAMMA) >>> 32) & mask];
+    }
+
+    /**
+     * Pull fresh OS entropy into every stripe
+     */
+    @Scheduled(fixedDelayString = "${app.random.reseed-interval:600000}",
+               initialDelayString = "${app.random.reseed-interval:600000}")
+    public void reseed() {
+        for (SecureRandom generator : generators) {
+            generator.reseed();
+        }
+        logger.debug("Reseeded {} DRBG stripes", generators.length);
+    }
+
+    public int getStripeCount() {
+        return generators.length;
+    }
+
+    private static SecureRandom build(int stripe) {
+        // Distinct personalization per stripe, on top of independent seeds
+        byte[] personalization = ByteBuffer.allocate(Long.BYTES + Integer.BYTES)
+            .putLong(System.nanoTime())
+            .putInt(stripe)
+            .array();
+        try {
+            return SecureRandom.getInstance("DRBG", DrbgParameters.instantiation(
+                256, DrbgParameters.Capability.RESEED_ONLY, personalization));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No 256-bit DRBG available", e);
+        }
+    }
+}
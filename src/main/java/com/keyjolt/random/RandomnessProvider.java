@@ -0,0 +1,37 @@
+package com.keyjolt.random;
+
+import org.bouncycastle.crypto.StreamCipher;
+import org.bouncycastle.crypto.engines.ChaCha7539Engine;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Source of randomness for key generation and secure deletion
+ */
+public interface RandomnessProvider {
+
+    /**
+     * Generator for key material. May differ between calling threads, so
+     * callers should fetch it per use rather than keep it in a field.
+     */
+    SecureRandom strong();
+
+    /**
+     * Cheap ChaCha20 keystream for overwrite patterns, keyed from
+     * {@link #strong()}. Not for key material.
+     */
+    default StreamCipher fastStream() {
+        byte[] key = new byte[32];
+        byte[] nonce = new byte[12];
+        SecureRandom random = strong();
+        random.nextBytes(key);
+        random.nextBytes(nonce);
+        StreamCipher cipher = new ChaCha7539Engine();
+        cipher.init(true, new ParametersWithIV(new KeyParameter(key), nonce));
+        Arrays.fill(key, (byte) 0);
+        return cipher;
+    }
+}
@@ -0,0 +1,22 @@
+package com.keyjolt.random;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+
+/**
+ * One shared {@code new SecureRandom()} for every caller, as the JDK
+ * configures it. Concurrent callers may serialize on its lock.
+ */
+@Component
+@ConditionalOnProperty(name = "app.random.provider", havingValue = "system")
+public class SystemRandomnessProvider implements RandomnessProvider {
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Override
+    public SecureRandom strong() {
+        return secureRandom;
+    }
+}
@@ -0,0 +1,35 @@
+package com.keyjolt.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the client address used to key rate limits and for logging.
+ * Only trusts proxy headers when app.trusted-proxy=true (i.e. behind a
+ * known reverse proxy like nginx). Otherwise falls back to remoteAddr
+ * so rate limiting cannot be trivially bypassed via spoofed headers.
+ */
+@Component
+public class ClientIpResolver {
+
+    @Value("${app.trusted-proxy:false}")
+    private boolean trustedProxy;
+
+    public String resolve(HttpServletRequest request) {
+        if (trustedProxy) {
+            String xForwardedFor = request.getHeader("X-Forwarded-For");
+            if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+                int comma = xForwardedFor.indexOf(',');
+                return (comma < 0 ? xForwardedFor : xForwardedFor.substring(0, comma)).trim();
+            }
+
+            String xRealIp = request.getHeader("X-Real-IP");
+            if (xRealIp != null && !xRealIp.isEmpty()) {
+                return xRealIp;
+            }
+        }
+
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,182 @@
+package com.keyjolt.ratelimit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Slots in a file shared by every instance that opens it, on one host or on
+ * a shared volume whose file system supports byte-range locks (NFSv4, SMB).
+ *
+ * Each slot is read and written under a lock on its own eight bytes, so
+ * instances only contend when they touch the same client's slot. Reads go
+ * to the file rather than a mapping, because a mapping is not kept
+ * coherent across hosts. File locks belong to the process, so threads first
+ * take an in-process stripe lock for the slot; the stripes are shared by
+ * every table in this JVM that opens the same file.
+ *
+ * The header holds the hash seed and the clock epoch. The first instance
+ * writes them; later instances adopt them, so a client hashes to the same
+ * slot and ticks count from the same instant everywhere.
+ */
+final class FileSlotTable implements SlotTable, Closeable {
+
+    private static final long MAGIC = 0x4b4a524c534c4f54L; // "KJRLSLOT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int LOCK_STRIPES = 64;
+
+    private static final Map<Path, ReentrantLock[]> STRIPES_BY_FILE = new ConcurrentHashMap<>();
+
+    private final FileChannel channel;
+    private final int length;
+    private final long seed;
+    private final long epochMillis;
+    private final ReentrantLock[] stripes;
+
+    FileSlotTable(Path file, int length) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        this.length = length;
+        this.stripes = STRIPES_BY_FILE.computeIfAbsent(file.toAbsolutePath().normalize(), f -> newStripes());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        // Another table in this JVM holding the header lock would make channel.lock throw
+        synchronized (stripes) {
+            try (FileLock ignored = channel.lock(0, HEADER_BYTES, false)) {
+                readFully(header, 0);
+                header.flip();
+                if (header.remaining() < HEADER_BYTES || header.getLong(0) != MAGIC) {
+                    header.clear();
+                    header.putLong(MAGIC).putInt(VERSION).putInt(length)
+                        .putLong(new SecureRandom().nextLong()).putLong(System.currentTimeMillis());
+                    header.clear();
+                    channel.write(header, 0);
+                    // Zeroed slots are empty slots
+                    channel.write(ByteBuffer.allocate(8), HEADER_BYTES + 8L * (length - 1));
+                    channel.force(true);
+                } else if (header.getInt(8) != VERSION || header.getInt(12) != length) {
+                    throw new IllegalStateException("Rate limit file " + file + " holds " + header.getInt(12)
+                        + " slots, this instance is configured for " + length);
+                }
+                this.seed = header.getLong(16);
+                this.epochMillis = header.getLong(24);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+    }
+
+    private static ReentrantLock[] newStripes() {
+        ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    long getEpochMillis() {
+        return epochMillis;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public long get(int index) {
+        ReentrantLock stripe = stripes[index & (LOCK_STRIPES - 1)];
+        stripe.lock();
+        try (FileLock ignored = channel.lock(offset(index), 8, true)) {
+            return read(index);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(int index, long expect, long update) {
+        ReentrantLock stripe = stripes[index & (LOCK_STRIPES - 1)];
+        stripe.lock();
+        try (FileLock ignored = channel.lock(offset(index), 8, false)) {
+            if (read(index) != expect) {
+                return false;
+            }
+            ByteBuffer value = ByteBuffer.allocate(8).putLong(0, update);
+            while (value.hasRemaining()) {
+                channel.write(value, offset(index) + value.position());
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Reads the slots in bulk without locking; good enough for a gauge
+     */
+    @Override
+    public int count(LongPredicate predicate) {
+        ByteBuffer chunk = ByteBuffer.allocate(8 * 8192);
+        int count = 0;
+        try {
+            for (int first = 0; first < length; first += 8192) {
+                chunk.clear().limit(8 * Math.min(8192, length - first));
+                readFully(chunk, offset(first));
+                for (int i = 0; i + 8 <= chunk.position(); i += 8) {
+                    if (predicate.test(chunk.getLong(i))) {
+                        count++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long read(int index) throws IOException {
+        ByteBuffer value = ByteBuffer.allocate(8);
+        readFully(value, offset(index));
+        return value.position() == 8 ? value.getLong(0) : 0L;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return;
+            }
+        }
+    }
+
+    private static long offset(int index) {
+        return HEADER_BYTES + 8L * index;
+    }
+}
@@ -0,0 +1,42 @@
+package com.keyjolt.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongPredicate;
+
+/**
+ * Slots on the heap, private to this instance
+ */
+final class HeapSlotTable implements SlotTable {
+
+    private final AtomicLongArray slots;
+
+    HeapSlotTable(int length) {
+        this.slots = new AtomicLongArray(length);
+    }
+
+    @Override
+    public int length() {
+        return slots.length();
+    }
+
+    @Override
+    public long get(int index) {
+        return slots.get(index);
+    }
+
+    @Override
+    public boolean compareAndSet(int index, long expect, long update) {
+        return slots.compareAndSet(index, expect, update);
+    }
+
+    @Override
+    public int count(LongPredicate predicate) {
+        int count = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (predicate.test(slots.get(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
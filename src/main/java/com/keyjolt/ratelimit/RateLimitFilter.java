@@ -0,0 +1,76 @@
+package com.keyjolt.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Applies the per-client rate limit to key generation endpoints before
+ * anything else runs: no logging, no security chain, and no body parsing
+ * or bean validation for requests that are going to be rejected anyway.
+ *
+ * Registered ahead of Spring Security in {@code RateLimitConfig} rather
+ * than as a component so its position in the chain is explicit.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimiter rateLimiter;
+    private final ClientIpResolver clientIpResolver;
+    private final Set<String> limitedPaths;
+    private final String limit;
+    private final byte[] rejectionBody;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ClientIpResolver clientIpResolver,
+                           Set<String> limitedPaths, int limit, byte[] rejectionBody) {
+        this.rateLimiter = rateLimiter;
+        this.clientIpResolver = clientIpResolver;
+        this.limitedPaths = Set.copyOf(limitedPaths);
+        this.limit = Integer.toString(limit);
+        this.rejectionBody = rejectionBody.clone();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        // Decoded and without ;params, the way MVC resolves the handler, so
+        // /api/%67enerate cannot slip past the limit
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        return !limitedPaths.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientIp = clientIpResolver.resolve(request);
+        long waitMillis = rateLimiter.tryAcquire(clientIp, 1);
+        response.setHeader(LIMIT_HEADER, limit);
+
+        if (waitMillis > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((waitMillis + 999) / 1000));
+            response.setHeader(REMAINING_HEADER, "0");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(rejectionBody.length);
+            response.getOutputStream().write(rejectionBody);
+            return;
+        }
+
+        response.setHeader(REMAINING_HEADER, Integer.toString(rateLimiter.available(clientIp)));
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,20 @@
+package com.keyjolt.ratelimit;
+
+/**
+ * Per-client rate limiter
+ */
+public interface RateLimiter {
+
+    /**
+     * Try to take permits for the given client key.
+     *
+     * @return 0 if the permits were granted, otherwise the number of
+     *         milliseconds until they would be available
+     */
+    long tryAcquire(String key, int permits);
+
+    /**
+     * Permits the client could take right now without being limited
+     */
+    int available(String key);
+}
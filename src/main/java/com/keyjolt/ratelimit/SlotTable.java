@@ -0,0 +1,23 @@
+package com.keyjolt.ratelimit;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Fixed-size table of 64-bit limiter slots, updated by compare-and-set.
+ * Where the table lives decides who shares the quota: the heap for one
+ * instance, a file for every instance that maps the same file.
+ */
+interface SlotTable {
+
+    int length();
+
+    long get(int index);
+
+    boolean compareAndSet(int index, long expect, long update);
+
+    /**
+     * Number of slots matching the predicate. A scan for monitoring: it
+     * does not need to be a consistent snapshot.
+     */
+    int count(LongPredicate predicate);
+}
@@ -0,0 +1,181 @@
+package com.keyjolt.ratelimit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Constant-memory rate limiter enforcing an hourly quota and a per-minute burst.
+ *
+ * Client keys are hashed into a fixed array of slots. Each slot is a single
+ * long holding two 32-bit theoretical arrival times (GCRA), one per limit,
+ * in 10ms ticks, so a check is one CAS loop with no allocation and no map.
+ * State needs no sweeping: a slot whose arrival times lie in the past is
+ * indistinguishable from an unused one. Clients that hash to the same slot
+ * share a quota, which only ever makes the limit stricter; the hash seed is
+ * random per instance so collisions cannot be planned in advance.
+ *
+ * {@link #shared} keeps the slots in a file instead, so every instance
+ * opening the same file enforces one global quota.
+ */
+public class StripedRateLimiter implements RateLimiter, Closeable {
+
+    private static final long TICK_NANOS = 10_000_000L;
+    private static final long TICK_MILLIS = 10L;
+    private static final long TICKS_PER_MINUTE = 60_000L / TICK_MILLIS;
+    private static final long TICKS_PER_HOUR = 60 * TICKS_PER_MINUTE;
+
+    private final SlotTable slots;
+    private final int mask;
+    private final long seed;
+    private final LongSupplier tickClock;
+
+    private final long hourlyInterval;
+    private final long hourlyWindow;
+    private final long burstInterval;
+    private final long burstWindow;
+
+    public StripedRateLimiter(int requestsPerHour, int burstCapacity, int slotCount) {
+        this(requestsPerHour, burstCapacity, slotCount, new SecureRandom().nextLong(), System::nanoTime);
+    }
+
+    StripedRateLimiter(int requestsPerHour, int burstCapacity, int slotCount, long seed, LongSupplier nanoClock) {
+        this(requestsPerHour, burstCapacity, new HeapSlotTable(tableSize(slotCount)), seed, ticksSince(nanoClock));
+    }
+
+    StripedRateLimiter(int requestsPerHour, int burstCapacity, SlotTable slots, long seed, LongSupplier tickClock) {
+        if (requestsPerHour < 1 || burstCapacity < 1) {
+            throw new IllegalArgumentException("Rate limits and slot count must be positive");
+        }
+        this.slots = slots;
+        this.mask = slots.length() - 1;
+        this.seed = seed;
+        this.tickClock = tickClock;
+
+        this.hourlyInterval = Math.max(1, TICKS_PER_HOUR / requestsPerHour);
+        this.hourlyWindow = hourlyInterval * requestsPerHour;
+        this.burstInterval = Math.max(1, TICKS_PER_MINUTE / burstCapacity);
+        this.burstWindow = burstInterval * burstCapacity;
+    }
+
+    /**
+     * Limiter whose slots live in the given file, shared with every other
+     * instance that opens it. Ticks count wall-clock time from the epoch
+     * recorded in the file, so clock skew between instances loosens or
+     * tightens a client's quota by about the skew.
+     */
+    public static StripedRateLimiter shared(int requestsPerHour, int burstCapacity, int slotCount, Path file)
+            throws IOException {
+        FileSlotTable table = new FileSlotTable(file, tableSize(slotCount));
+        long epoch = table.getEpochMillis();
+        return new StripedRateLimiter(requestsPerHour, burstCapacity, table, table.getSeed(),
+            () -> (System.currentTimeMillis() - epoch) / TICK_MILLIS);
+    }
+
+    @Override
+    public long tryAcquire(String key, int permits) {
+        int now = currentTick();
+        int index = indexOf(key);
+
+        while (true) {
+            long state = slots.get(index);
+            long hourlyAhead = ahead((int) (state >>> 32), now, hourlyWindow) + hourlyInterval * permits;
+            long burstAhead = ahead((int) state, now, burstWindow) + burstInterval * permits;
+
+            long excess = Math.max(hourlyAhead - hourlyWindow, burstAhead - burstWindow);
+            if (excess > 0) {
+                return excess * TICK_MILLIS;
+            }
+
+            long next = ((long) (now + (int) hourlyAhead) << 32) | ((now + (int) burstAhead) & 0xFFFFFFFFL);
+            if (slots.compareAndSet(index, state, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public int available(String key) {
+        int now = currentTick();
+        long state = slots.get(indexOf(key));
+        long hourly = (hourlyWindow - ahead((int) (state >>> 32), now, hourlyWindow)) / hourlyInterval;
+        long burst = (burstWindow - ahead((int) state, now, burstWindow)) / burstInterval;
+        return (int) Math.min(hourly, burst);
+    }
+
+    /**
+     * Number of slots in the table
+     */
+    public int getSlotCount() {
+        return slots.length();
+    }
+
+    /**
+     * Number of slots currently holding quota state, i.e. clients seen
+     * within the last hour. Scans the whole table.
+     */
+    public int activeSlots() {
+        int now = currentTick();
+        return slots.count(state ->
+            ahead((int) (state >>> 32), now, hourlyWindow) > 0 || ahead((int) state, now, burstWindow) > 0);
+    }
+
+    /**
+     * Release the file behind a shared table; a no-op for the heap table
+     */
+    @Override
+    public void close() throws IOException {
+        if (slots instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private int currentTick() {
+        return (int) tickClock.getAsLong();
+    }
+
+    /**
+     * Power of two at or above the requested slot count
+     */
+    private static int tableSize(int slotCount) {
+        if (slotCount < 1) {
+            throw new IllegalArgumentException("Rate limits and slot count must be positive");
+        }
+        int size = Integer.highestOneBit(Math.min(slotCount, 1 << 30));
+        return size < slotCount ? size << 1 : size;
+    }
+
+    /**
+     * Ticks elapsed on a monotonic clock since this call
+     */
+    private static LongSupplier ticksSince(LongSupplier nanoClock) {
+        long origin = nanoClock.getAsLong();
+        return () -> (nanoClock.getAsLong() - origin) / TICK_NANOS;
+    }
+
+    /**
+     * How far an arrival time lies ahead of now. Times in the past, and
+     * values too far ahead to be real (an idle slot after the 32-bit tick
+     * counter wrapped), count as an empty slot.
+     */
+    private static long ahead(int tat, int now, long window) {
+        int diff = tat - now;
+        return diff > 0 && diff <= window ? diff : 0;
+    }
+
+    /**
+     * Seeded FNV-1a over the key's chars with a murmur finalizer
+     */
+    private int indexOf(String key) {
+        long h = seed ^ 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
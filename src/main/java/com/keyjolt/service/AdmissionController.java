@@ -0,0 +1,190 @@
+package com.keyjolt.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the number of key generations running at once.
+ *
+ * Requests beyond the limit wait in a small FIFO queue until a slot frees
+ * up or their deadline passes; once the queue is full, new requests are
+ * turned away immediately. Either way the caller gets a
+ * {@link ServiceOverloadedException} carrying a Retry-After estimate
+ * instead of piling another prime search onto saturated cores.
+ *
+ * With {@code app.admission.adaptive=true} the limit follows an AIMD rule:
+ * it grows by one slot per limit's worth of generations that finish under
+ * the target latency, and shrinks by the backoff ratio when one does not,
+ * staying between {@code min-concurrent} and {@code max-concurrent}.
+ */
+@Component
+public class AdmissionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
+
+    @Value("${app.admission.max-concurrent:0}")
+    private int maxConcurrent;
+
+    @Value("${app.admission.min-concurrent:1}")
+    private int minConcurrent;
+
+    @Value("${app.admission.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${app.admission.queue-timeout:10000}")
+    private long queueTimeout;
+
+    @Value("${app.admission.adaptive:false}")
+    private boolean adaptive;
+
+    @Value("${app.admission.target-latency:5000}")
+    private long targetLatency;
+
+    @Value("${app.admission.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private final AtomicLong rejected = new AtomicLong();
+
+    // Guarded by lock
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double averageLatencyMillis;
+
+    @PostConstruct
+    public void init() {
+        if (maxConcurrent <= 0) {
+            maxConcurrent = Runtime.getRuntime().availableProcessors();
+        }
+        minConcurrent = Math.max(1, Math.min(minConcurrent, maxConcurrent));
+        limit = maxConcurrent;
+        logger.info("Admission control ready (limit={}, queue={}, timeout={}ms, adaptive={})",
+            maxConcurrent, queueCapacity, queueTimeout, adaptive);
+    }
+
+    /**
+     * Run the task once a generation slot is available
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        acquire();
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            T result = task.call();
+            completed = true;
+            return result;
+        } finally {
+            release(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), completed);
+        }
+    }
+
+    private void acquire() throws ServiceOverloadedException, InterruptedException {
+        lock.lock();
+        try {
+            // Newcomers only take a free slot directly when nobody is queued ahead of them
+            if (waiting == 0 && inFlight < currentLimit()) {
+                inFlight++;
+                return;
+            }
+            if (waiting >= queueCapacity) {
+                throw overloaded("Generation queue is full");
+            }
+
+            waiting++;
+            try {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(queueTimeout);
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        throw overloaded("Timed out waiting for a generation slot");
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                inFlight++;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long latencyMillis, boolean completed) {
+        lock.lock();
+        try {
+            inFlight--;
+            averageLatencyMillis = averageLatencyMillis == 0
+                ? latencyMillis
+                : averageLatencyMillis * 0.8 + latencyMillis * 0.2;
+
+            if (adaptive && completed) {
+                if (latencyMillis <= targetLatency) {
+                    limit = Math.min(maxConcurrent, limit + 1.0 / limit);
+                } else {
+                    limit = Math.max(minConcurrent, limit * backoffRatio);
+                }
+            }
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private ServiceOverloadedException overloaded(String reason) {
+        rejected.incrementAndGet();
+        // Roughly how long the queue ahead of this caller takes to drain
+        double perSlotMillis = averageLatencyMillis > 0 ? averageLatencyMillis : targetLatency;
+        long retryAfter = (long) Math.ceil(perSlotMillis * (waiting + 1) / Math.max(1, currentLimit()) / 1000);
+        logger.warn("Key generation rejected: {} (inFlight={}, waiting={}, limit={})",
+            reason, inFlight, waiting, currentLimit());
+        return new ServiceOverloadedException(reason, Math.max(1, retryAfter));
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Total requests turned away since startup
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,147 @@
+package com.keyjolt.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keyjolt.model.BatchItemResult;
+import com.keyjolt.model.KeyRequest;
+import com.keyjolt.model.KeyResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates a batch of validated requests and streams one NDJSON line per
+ * request as soon as it finishes, in completion order.
+ *
+ * Batch items run on their own bounded executor rather than directly on
+ * the generation pool: each item still forks its key material onto that
+ * pool and blocks joining it, which would deadlock if the items themselves
+ * occupied every pool thread. Admission control applies per item.
+ */
+@Service
+public class BatchGenerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchGenerationService.class);
+
+    @Autowired
+    private KeyGenerationService keyGenerationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.batch.threads:0}")
+    private int threads;
+
+    @Value("${app.batch.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.batch.timeout:600000}")
+    private long timeout;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        if (threads <= 0) {
+            // Leave half the cores for single requests
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                Thread t = new Thread(r, "keygen-batch-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        logger.info("Batch generation ready (threads={}, queue-capacity={})", threads, queueCapacity);
+    }
+
+    /**
+     * Start generating every request in the batch and return the stream
+     * the results are written to.
+     *
+     * @throws RejectedExecutionException if the batch queue cannot take the whole batch
+     */
+    public ResponseBodyEmitter generate(List<KeyRequest> requests) {
+        if (executor.getQueue().remainingCapacity() < requests.size()) {
+            throw new RejectedExecutionException("Batch queue is full");
+        }
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout);
+        AtomicInteger remaining = new AtomicInteger(requests.size());
+        AtomicBoolean abandoned = new AtomicBoolean();
+        emitter.onTimeout(() -> abandoned.set(true));
+        emitter.onError(e -> abandoned.set(true));
+
+        for (int i = 0; i < requests.size(); i++) {
+            int index = i;
+            KeyRequest request = requests.get(i);
+            Runnable task = () -> {
+                // Skip the work if the client is gone, but still count down
+                if (!abandoned.get()) {
+                    send(emitter, abandoned, new BatchItemResult(index, generate(request)));
+                }
+                if (remaining.decrementAndGet() == 0 && !abandoned.get()) {
+                    emitter.complete();
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Lost the race for queue space; report this item as busy instead
+                send(emitter, abandoned, new BatchItemResult(index, busy()));
+                if (remaining.decrementAndGet() == 0) {
+                    emitter.complete();
+                }
+            }
+        }
+        return emitter;
+    }
+
+    private KeyResponse generate(KeyRequest request) {
+        try {
+            return keyGenerationService.generate(request, GenerationProgressListener.NONE);
+        } catch (ServiceOverloadedException e) {
+            return busy();
+        } catch (Exception e) {
+            logger.error("Failed to generate keys for batch item", e);
+            return KeyResponse.error("Key generation failed. Please try again.");
+        }
+    }
+
+    private KeyResponse busy() {
+        return KeyResponse.error("Server is busy. Please try again shortly.");
+    }
+
+    private void send(ResponseBodyEmitter emitter, AtomicBoolean abandoned, BatchItemResult item) {
+        try {
+            String line = objectMapper.writeValueAsString(item) + "\n";
+            synchronized (emitter) {
+                emitter.send(line, MediaType.APPLICATION_NDJSON);
+            }
+        } catch (IOException | IllegalStateException e) {
+            abandoned.set(true);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        logger.info("Shutting down batch generation executor");
+        executor.shutdownNow();
+    }
+}
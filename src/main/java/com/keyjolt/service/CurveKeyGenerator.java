@@ -0,0 +1,74 @@
+package com.keyjolt.service;
+
+import com.keyjolt.model.KeyType;
+import com.keyjolt.random.RandomnessProvider;
+import org.bouncycastle.asn1.x9.ECNamedCurveTable;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.generators.ECKeyPairGenerator;
+import org.bouncycastle.crypto.generators.Ed25519KeyPairGenerator;
+import org.bouncycastle.crypto.generators.X25519KeyPairGenerator;
+import org.bouncycastle.crypto.params.ECKeyGenerationParameters;
+import org.bouncycastle.crypto.params.ECNamedDomainParameters;
+import org.bouncycastle.crypto.params.Ed25519KeyGenerationParameters;
+import org.bouncycastle.crypto.params.X25519KeyGenerationParameters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generates elliptic curve key material. Unlike RSA this is cheap enough
+ * to do inline on the request thread, so there is no pool.
+ */
+@Component
+public class CurveKeyGenerator {
+
+    private static final ECNamedDomainParameters P256 = namedCurve("P-256");
+    private static final ECNamedDomainParameters P384 = namedCurve("P-384");
+
+    @Autowired
+    private RandomnessProvider randomness;
+
+    /**
+     * Key pair for signing and certification (PGP primary key, SSH key)
+     */
+    public AsymmetricCipherKeyPair generateSigningKey(KeyType type) {
+        if (type == KeyType.ED25519) {
+            Ed25519KeyPairGenerator generator = new Ed25519KeyPairGenerator();
+            generator.init(new Ed25519KeyGenerationParameters(randomness.strong()));
+            return generator.generateKeyPair();
+        }
+        return generateEc(type);
+    }
+
+    /**
+     * Key pair for key agreement (PGP ECDH encryption subkey)
+     */
+    public AsymmetricCipherKeyPair generateEncryptionKey(KeyType type) {
+        if (type == KeyType.ED25519) {
+            X25519KeyPairGenerator generator = new X25519KeyPairGenerator();
+            generator.init(new X25519KeyGenerationParameters(randomness.strong()));
+            return generator.generateKeyPair();
+        }
+        return generateEc(type);
+    }
+
+    private AsymmetricCipherKeyPair generateEc(KeyType type) {
+        ECNamedDomainParameters curve;
+        switch (type) {
+            case ECDSA_P256:
+                curve = P256;
+                break;
+            case ECDSA_P384:
+                curve = P384;
+                break;
+            default:
+                throw new IllegalArgumentException("Not a curve key type: " + type);
+        }
+        ECKeyPairGenerator generator = new ECKeyPairGenerator();
+        generator.init(new ECKeyGenerationParameters(curve, randomness.strong()));
+        return generator.generateKeyPair();
+    }
+
+    private static ECNamedDomainParameters namedCurve(String name) {
+        return new ECNamedDomainParameters(ECNamedCurveTable.getOID(name), ECNamedCurveTable.getByName(name));
+    }
+}
@@ -0,0 +1,14 @@
+package com.keyjolt.service;
+
+import com.keyjolt.model.GenerationStage;
+
+/**
+ * Callback notified as key generation moves from one stage to the next
+ */
+@FunctionalInterface
+public interface GenerationProgressListener {
+
+    GenerationProgressListener NONE = stage -> { };
+
+    void onStage(GenerationStage stage);
+}
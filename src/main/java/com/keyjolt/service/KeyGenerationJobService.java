@@ -0,0 +1,197 @@
+package com.keyjolt.service;
+
+import com.keyjolt.model.GenerationStage;
+import com.keyjolt.model.JobStatus;
+import com.keyjolt.model.KeyRequest;
+import com.keyjolt.model.KeyResponse;
+import com.keyjolt.util.ThreadFactories;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs key generation requests as background jobs on a dedicated bounded
+ * executor so no servlet thread is held for the duration of generation.
+ * Progress can be polled or streamed to Server-Sent Events subscribers.
+ */
+@Service
+public class KeyGenerationJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyGenerationJobService.class);
+
+    @Autowired
+    private KeyGenerationService keyGenerationService;
+
+    @Value("${app.jobs.threads:2}")
+    private int threads;
+
+    @Value("${app.jobs.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${app.jobs.retention:300000}")
+    private long retention;
+
+    @Value("${app.jobs.sse-timeout:120000}")
+    private long sseTimeout;
+
+    // Job threads only wait for admission and the generation pool
+    @Value("${app.threads.virtual:${spring.threads.virtual.enabled:false}}")
+    private boolean virtualThreads;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            ThreadFactories.forMode("keygen-job", false, virtualThreads));
+    }
+
+    /**
+     * Queue a validated request for generation and return its initial status.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public JobStatus submit(KeyRequest request) {
+        Job job = new Job(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        return job.status();
+    }
+
+    /**
+     * Current status of a job, or null if it is unknown or expired
+     */
+    public JobStatus getStatus(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? job.status() : null;
+    }
+
+    /**
+     * Subscribe to stage updates for a job. The emitter receives the current
+     * status immediately and completes once the job has finished.
+     */
+    public SseEmitter subscribe(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(sseTimeout);
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(e -> job.emitters.remove(emitter));
+        job.emitters.add(emitter);
+
+        // Send current state; if the job already finished this also closes the stream
+        job.publish(emitter);
+        return emitter;
+    }
+
+    private void run(Job job, KeyRequest request) {
+        try {
+            KeyResponse result = keyGenerationService.generate(request, job::advance);
+            job.finish(GenerationStage.COMPLETED, result);
+        } catch (ServiceOverloadedException e) {
+            job.finish(GenerationStage.FAILED, KeyResponse.error("Server is busy. Please try again shortly."));
+        } catch (Exception e) {
+            logger.error("Failed to generate keys for job {}", job.id, e);
+            job.finish(GenerationStage.FAILED, KeyResponse.error("Key generation failed. Please try again."));
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictExpiredJobs() {
+        long cutoff = System.currentTimeMillis() - retention;
+        Iterator<Job> it = jobs.values().iterator();
+        while (it.hasNext()) {
+            Job job = it.next();
+            if (job.finishedAt > 0 && job.finishedAt < cutoff) {
+                it.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        logger.info("Shutting down key generation job executor");
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Mutable job state shared between the worker thread and subscribers
+     */
+    private static class Job {
+        private final String id;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        // Replaced as a whole, so readers never see a result with a stale stage
+        private volatile JobStatus status;
+        private volatile long finishedAt;
+
+        Job(String id) {
+            this.id = id;
+            this.status = new JobStatus(id, GenerationStage.QUEUED, false, null);
+        }
+
+        JobStatus status() {
+            return status;
+        }
+
+        void advance(GenerationStage next) {
+            status = new JobStatus(id, next, false, null);
+            emitters.forEach(this::publish);
+        }
+
+        void finish(GenerationStage last, KeyResponse response) {
+            status = new JobStatus(id, last, true, response);
+            finishedAt = System.currentTimeMillis();
+            emitters.forEach(this::publish);
+        }
+
+        void publish(SseEmitter emitter) {
+            JobStatus status = status();
+            try {
+                emitter.send(SseEmitter.event()
+                    .name(status.isDone() ? "complete" : "stage")
+                    .data(status));
+                if (status.isDone()) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+            }
+        }
+    }
+}
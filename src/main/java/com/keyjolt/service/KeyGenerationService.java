@@ -0,0 +1,271 @@
+package com.keyjolt.service;
+
+import com.keyjolt.metrics.GenerationMetrics;
+import com.keyjolt.model.GenerationStage;
+import com.keyjolt.model.KeyRequest;
+import com.keyjolt.model.KeyResponse;
+import com.keyjolt.model.KeyType;
+import com.keyjolt.store.ArtifactStore;
+import com.keyjolt.store.StoredArtifact;
+import com.keyjolt.util.ThreadFactories;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Orchestrates PGP and optional SSH key generation for a single request
+ * and builds the response with download links.
+ *
+ * The master key, encryption subkey and SSH key are independent, so their
+ * key material is produced in parallel on a shared generation pool and
+ * joined before the PGP key ring is assembled. Each request forks at most
+ * {@code app.generation.per-request-parallelism - 1} tasks and generates
+ * the rest on the calling thread, so one user cannot occupy every core.
+ * Curve key types are generated inline since they take microseconds.
+ * Every generation first passes through the {@link AdmissionController}.
+ */
+@Service
+public class KeyGenerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyGenerationService.class);
+
+    @Autowired
+    private PgpKeyService pgpKeyService;
+
+    @Autowired
+    private SshKeyService sshKeyService;
+
+    @Autowired
+    private RsaKeyPool rsaKeyPool;
+
+    @Autowired
+    private CurveKeyGenerator curveKeyGenerator;
+
+    @Autowired
+    private ArtifactStore artifactStore;
+
+    @Autowired
+    private AdmissionController admissionController;
+
+    @Autowired
+    private GenerationMetrics metrics;
+
+    @Value("${app.generation.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.generation.per-request-parallelism:3}")
+    private int perRequestParallelism;
+
+    private ExecutorService generationExecutor;
+
+    @PostConstruct
+    public void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        generationExecutor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "keygen-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        logger.info("Key generation pool ready (threads={}, per-request-parallelism={})",
+            threads, perRequestParallelism);
+    }
+
+    /**
+     * Generate all key pairs for an already validated request
+     *
+     * @throws ServiceOverloadedException if no generation slot became free in time
+     */
+    public KeyResponse generate(KeyRequest request, GenerationProgressListener listener) throws Exception {
+        return admissionController.call(() -> generateAdmitted(request, listener));
+    }
+
+    private KeyResponse generateAdmitted(KeyRequest request, GenerationProgressListener listener) throws Exception {
+        KeyType keyType = request.resolveKeyType();
+        if (keyType != KeyType.RSA) {
+            long start = System.nanoTime();
+            listener.onStage(GenerationStage.MASTER_KEY);
+            AsymmetricCipherKeyPair masterKey = curveKeyGenerator.generateSigningKey(keyType);
+            start = metrics.recordStage(GenerationMetrics.MASTER_KEY, request, start);
+            listener.onStage(GenerationStage.SUBKEY);
+            AsymmetricCipherKeyPair encryptionKey = curveKeyGenerator.generateEncryptionKey(keyType);
+            start = metrics.recordStage(GenerationMetrics.SUBKEY, request, start);
+            AsymmetricCipherKeyPair sshKey = null;
+            if (request.isGenerateSshKey()) {
+                listener.onStage(GenerationStage.SSH);
+                sshKey = curveKeyGenerator.generateSigningKey(keyType);
+                metrics.recordStage(GenerationMetrics.SSH_KEY, request, start);
+            }
+            return assemble(request, masterKey, encryptionKey, sshKey, listener, keyType.getDisplayName());
+        }
+
+        int strength = request.getEncryptionStrength();
+        int forks = Math.max(0, Math.min(perRequestParallelism, request.isGenerateSshKey() ? 3 : 2) - 1);
+
+        // Fork the subkey and SSH key first; the calling thread takes the master key itself
+        CompletableFuture<AsymmetricCipherKeyPair> subkeyTask = fork(strength, forks >= 1);
+        CompletableFuture<AsymmetricCipherKeyPair> sshTask =
+            request.isGenerateSshKey() ? fork(strength, forks >= 2) : null;
+
+        AsymmetricCipherKeyPair masterKey;
+        AsymmetricCipherKeyPair encryptionKey;
+        AsymmetricCipherKeyPair sshKey = null;
+        try {
+            // Forked stages are timed as the wait seen by this request, not the work on the pool
+            long start = System.nanoTime();
+            listener.onStage(GenerationStage.MASTER_KEY);
+            masterKey = join(null, strength);
+            start = metrics.recordStage(GenerationMetrics.MASTER_KEY, request, start);
+
+            listener.onStage(GenerationStage.SUBKEY);
+            encryptionKey = join(subkeyTask, strength);
+            start = metrics.recordStage(GenerationMetrics.SUBKEY, request, start);
+
+            if (request.isGenerateSshKey()) {
+                listener.onStage(GenerationStage.SSH);
+                sshKey = join(sshTask, strength);
+                metrics.recordStage(GenerationMetrics.SSH_KEY, request, start);
+            }
+        } catch (Exception e) {
+            cancel(subkeyTask);
+            cancel(sshTask);
+            throw e;
+        }
+
+        return assemble(request, masterKey, encryptionKey, sshKey, listener, "RSA-" + strength);
+    }
+
+    /**
+     * Build the PGP key ring and optional SSH key from generated key material
+     * and store them for download
+     */
+    private KeyResponse assemble(KeyRequest request,
+                                 AsymmetricCipherKeyPair masterKey,
+                                 AsymmetricCipherKeyPair encryptionKey,
+                                 AsymmetricCipherKeyPair sshKey,
+                                 GenerationProgressListener listener,
+                                 String algorithm) throws Exception {
+        List<KeyResponse.FileInfo> files = new ArrayList<>();
+        List<StoredArtifact> artifacts = new ArrayList<>();
+
+        // Assemble PGP key ring
+        PgpKeyService.PgpKeyPair pgpKeys = pgpKeyService.generateKeyPair(request, masterKey, encryptionKey, listener);
+        addFile(files, artifacts, pgpKeys.getPublicKeyFile(), "pgp_public");
+        addFile(files, artifacts, pgpKeys.getPrivateKeyFile(), "pgp_private");
+
+        // Encode SSH key pair if requested
+        if (sshKey != null) {
+            SshKeyService.SshKeyPair sshKeys = sshKeyService.generateKeyPair(request, sshKey);
+            addFile(files, artifacts, sshKeys.getPublicKeyFile(), "ssh_public");
+            addFile(files, artifacts, sshKeys.getPrivateKeyFile(), "ssh_private");
+        }
+
+        logger.debug("Keys generated successfully (algorithm={})", algorithm);
+        metrics.recordGenerationSuccess();
+
+        KeyResponse response = KeyResponse.success(
+            "Keys generated successfully! Download them below.",
+            pgpKeys.getKeyId(),
+            files
+        );
+        response.setAlgorithm(algorithm);
+        response.setBundleUrl("/download/bundle/" + artifactStore.storeBundle(artifacts));
+        return response;
+    }
+
+    /**
+     * Start producing key material on the generation pool, or return null
+     * to have the caller produce it inline when joining
+     */
+    private CompletableFuture<AsymmetricCipherKeyPair> fork(int strength, boolean parallel) {
+        if (!parallel) {
+            return null;
+        }
+        CompletableFuture<AsymmetricCipherKeyPair> task = new CompletableFuture<>();
+        generationExecutor.execute(() -> {
+            // Cancelled before it started: leave the pooled material for another request
+            if (task.isDone()) {
+                return;
+            }
+            try {
+                AsymmetricCipherKeyPair keyPair = rsaKeyPool.take(strength);
+                if (!task.complete(keyPair)) {
+                    // Cancelled while taking; the key pair was never handed out
+                    rsaKeyPool.restore(strength, keyPair);
+                }
+            } catch (Throwable t) {
+                task.completeExceptionally(t);
+            }
+        });
+        return task;
+    }
+
+    /**
+     * Wait for forked key material, or produce it inline. A virtual caller
+     * hands inline RSA work to the platform pool so it never holds a carrier.
+     */
+    private AsymmetricCipherKeyPair join(CompletableFuture<AsymmetricCipherKeyPair> task, int strength)
+            throws Exception {
+        if (task == null && ThreadFactories.isVirtual(Thread.currentThread())) {
+            task = fork(strength, true);
+        }
+        if (task == null) {
+            return rsaKeyPool.take(strength);
+        }
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    /**
+     * Give up on forked key material after the request failed. A task that
+     * is already taking from the pool finishes and returns its key pair.
+     */
+    private void cancel(CompletableFuture<?> task) {
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    private void addFile(List<KeyResponse.FileInfo> files, List<StoredArtifact> artifacts,
+                         StoredArtifact artifact, String type) {
+        artifacts.add(artifact);
+        files.add(new KeyResponse.FileInfo(
+            artifact.getFilename(),
+            "/download/" + artifact.getId(),
+            type,
+            artifact.getSize()
+        ));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        logger.info("Shutting down key generation pool");
+        generationExecutor.shutdown();
+        try {
+            if (!generationExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                generationExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            generationExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
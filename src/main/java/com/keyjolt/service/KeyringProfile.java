@@ -0,0 +1,235 @@
+package com.keyjolt.service;
+
+import com.keyjolt.model.KeyType;
+import org.bouncycastle.bcpg.HashAlgorithmTags;
+import org.bouncycastle.bcpg.PublicKeyAlgorithmTags;
+import org.bouncycastle.bcpg.SymmetricKeyAlgorithmTags;
+import org.bouncycastle.bcpg.sig.Features;
+import org.bouncycastle.bcpg.sig.KeyFlags;
+import org.bouncycastle.openpgp.PGPException;
+import org.bouncycastle.openpgp.PGPSecretKeyRing;
+import org.bouncycastle.openpgp.PGPSignatureSubpacketGenerator;
+import org.bouncycastle.openpgp.PGPSignatureSubpacketVector;
+import org.bouncycastle.openpgp.operator.PGPDigestCalculator;
+import org.bouncycastle.openpgp.operator.bc.BcPGPContentSignerBuilder;
+import org.bouncycastle.openpgp.operator.bc.BcPGPDigestCalculatorProvider;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Everything about a key ring that does not depend on the request: the
+ * algorithm tags for one key type, the preference and key flag subpackets of
+ * the self-signatures and the Bouncy Castle operator builders. Built once per
+ * profile and key type and shared by all request threads.
+ *
+ * The subpacket vectors are immutable. Vectors carrying a key expiry are
+ * derived from the base vectors on first use and cached per expiry in days,
+ * which the request validation bounds. Digest calculators keep state, so
+ * those and the passphrase protection are still created per key ring.
+ */
+public final class KeyringProfile {
+
+    private static final Map<String, Integer> HASH_ALGORITHMS = Map.of(
+        "SHA1", HashAlgorithmTags.SHA1,
+        "SHA224", HashAlgorithmTags.SHA224,
+        "SHA256", HashAlgorithmTags.SHA256,
+        "SHA384", HashAlgorithmTags.SHA384,
+        "SHA512", HashAlgorithmTags.SHA512);
+
+    private static final Map<String, Integer> SYMMETRIC_ALGORITHMS = Map.of(
+        "AES128", SymmetricKeyAlgorithmTags.AES_128,
+        "AES192", SymmetricKeyAlgorithmTags.AES_192,
+        "AES256", SymmetricKeyAlgorithmTags.AES_256,
+        "CAMELLIA128", SymmetricKeyAlgorithmTags.CAMELLIA_128,
+        "CAMELLIA192", SymmetricKeyAlgorithmTags.CAMELLIA_192,
+        "CAMELLIA256", SymmetricKeyAlgorithmTags.CAMELLIA_256,
+        "TWOFISH", SymmetricKeyAlgorithmTags.TWOFISH,
+        "CAST5", SymmetricKeyAlgorithmTags.CAST5,
+        "TRIPLEDES", SymmetricKeyAlgorithmTags.TRIPLE_DES);
+
+    // Stateless; hands out a new calculator per call
+    private static final BcPGPDigestCalculatorProvider DIGESTS = new BcPGPDigestCalculatorProvider();
+
+    private final String name;
+    private final KeyType keyType;
+    private final int signingAlgorithm;
+    private final int encryptionAlgorithm;
+    private final int[] preferredHashAlgorithms;
+    private final int[] preferredSymmetricAlgorithms;
+    private final SecretKeyProtection protection;
+    private final BcPGPContentSignerBuilder signerBuilder;
+    private final SubpacketPair noExpiry;
+    private final Map<Integer, SubpacketPair> withExpiry = new ConcurrentHashMap<>();
+
+    KeyringProfile(String name, KeyType keyType, int[] preferredHashAlgorithms,
+                   int[] preferredSymmetricAlgorithms, SecretKeyProtection protection) {
+        this.name = name;
+        this.keyType = keyType;
+        this.signingAlgorithm = signingAlgorithm(keyType);
+        this.encryptionAlgorithm = keyType == KeyType.RSA
+            ? PublicKeyAlgorithmTags.RSA_GENERAL : PublicKeyAlgorithmTags.ECDH;
+        this.preferredHashAlgorithms = preferredHashAlgorithms.clone();
+        this.preferredSymmetricAlgorithms = preferredSymmetricAlgorithms.clone();
+        this.protection = protection;
+        // Match the self-signature hash to the curve's security level
+        this.signerBuilder = new BcPGPContentSignerBuilder(signingAlgorithm,
+            keyType == KeyType.ECDSA_P384 ? HashAlgorithmTags.SHA384 : HashAlgorithmTags.SHA256);
+        this.noExpiry = subpackets(0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public KeyType getKeyType() {
+        return keyType;
+    }
+
+    public int getSigningAlgorithm() {
+        return signingAlgorithm;
+    }
+
+    public int getEncryptionAlgorithm() {
+        return encryptionAlgorithm;
+    }
+
+    public int[] getPreferredHashAlgorithms() {
+        return preferredHashAlgorithms.clone();
+    }
+
+    public int[] getPreferredSymmetricAlgorithms() {
+        return preferredSymmetricAlgorithms.clone();
+    }
+
+    public SecretKeyProtection getProtection() {
+        return protection;
+    }
+
+    /**
+     * Builds a new signer per call, so one instance serves every thread
+     */
+    public BcPGPContentSignerBuilder getSignerBuilder() {
+        return signerBuilder;
+    }
+
+    /**
+     * Hashed subpackets of the master key's self-signature
+     */
+    public PGPSignatureSubpacketVector masterSubpackets(int expiryDays) {
+        return forExpiry(expiryDays).master;
+    }
+
+    /**
+     * Hashed subpackets of the encryption subkey's binding signature
+     */
+    public PGPSignatureSubpacketVector subkeySubpackets(int expiryDays) {
+        return forExpiry(expiryDays).subkey;
+    }
+
+    /**
+     * Fresh SHA-1 calculator for the key ring's key checksums
+     */
+    public PGPDigestCalculator newChecksumCalculator() throws PGPException {
+        return DIGESTS.get(HashAlgorithmTags.SHA1);
+    }
+
+    /**
+     * Copy of an unprotected secret key ring encrypted under the passphrase
+     * with this profile's S2K settings; the passphrase is zeroed afterwards
+     */
+    public PGPSecretKeyRing protect(PGPSecretKeyRing ring, char[] passphrase, SecureRandom random)
+            throws PGPException {
+        return protection.protect(ring, passphrase, random);
+    }
+
+    private SubpacketPair forExpiry(int expiryDays) {
+        if (expiryDays <= 0) {
+            return noExpiry;
+        }
+        return withExpiry.computeIfAbsent(expiryDays, this::subpackets);
+    }
+
+    private SubpacketPair subpackets(int expiryDays) {
+        PGPSignatureSubpacketGenerator master = new PGPSignatureSubpacketGenerator();
+        master.setKeyFlags(false, KeyFlags.CERTIFY_OTHER | KeyFlags.SIGN_DATA);
+        master.setPreferredHashAlgorithms(false, preferredHashAlgorithms);
+        master.setPreferredSymmetricAlgorithms(false, preferredSymmetricAlgorithms);
+        master.setFeature(false, Features.FEATURE_MODIFICATION_DETECTION);
+
+        PGPSignatureSubpacketGenerator subkey = new PGPSignatureSubpacketGenerator();
+        subkey.setKeyFlags(false, KeyFlags.ENCRYPT_COMMS | KeyFlags.ENCRYPT_STORAGE);
+
+        if (expiryDays > 0) {
+            long seconds = expiryDays * 24L * 60L * 60L;
+            master.setKeyExpirationTime(false, seconds);
+            subkey.setKeyExpirationTime(false, seconds);
+        }
+        return new SubpacketPair(master.generate(), subkey.generate());
+    }
+
+    private static int signingAlgorithm(KeyType keyType) {
+        switch (keyType) {
+            case ED25519:
+                return PublicKeyAlgorithmTags.EDDSA_LEGACY;
+            case ECDSA_P256:
+            case ECDSA_P384:
+                return PublicKeyAlgorithmTags.ECDSA;
+            default:
+                return PublicKeyAlgorithmTags.RSA_GENERAL;
+        }
+    }
+
+    /**
+     * Hash algorithm tag for a name such as SHA256
+     */
+    static int hashAlgorithm(String name) {
+        return lookup(HASH_ALGORITHMS, name, "hash");
+    }
+
+    /**
+     * Symmetric algorithm tag for a name such as AES256
+     */
+    static int symmetricAlgorithm(String name) {
+        return lookup(SYMMETRIC_ALGORITHMS, name, "symmetric");
+    }
+
+    static int[] hashAlgorithms(List<String> names) {
+        return names.stream().mapToInt(KeyringProfile::hashAlgorithm).toArray();
+    }
+
+    static int[] symmetricAlgorithms(List<String> names) {
+        return names.stream().mapToInt(KeyringProfile::symmetricAlgorithm).toArray();
+    }
+
+    private static int lookup(Map<String, Integer> tags, String name, String kind) {
+        Integer tag = name == null ? null
+            : tags.get(name.trim().toUpperCase(Locale.ROOT).replace("-", "").replace("_", ""));
+        if (tag == null) {
+            throw new IllegalArgumentException("Unknown " + kind + " algorithm '" + name
+                + "', expected one of " + tags.keySet());
+        }
+        return tag;
+    }
+
+    @Override
+    public String toString() {
+        return name + "/" + keyType + " hash=" + Arrays.toString(preferredHashAlgorithms)
+            + " symmetric=" + Arrays.toString(preferredSymmetricAlgorithms) + " s2k=" + protection;
+    }
+
+    private static final class SubpacketPair {
+
+        final PGPSignatureSubpacketVector master;
+        final PGPSignatureSubpacketVector subkey;
+
+        SubpacketPair(PGPSignatureSubpacketVector master, PGPSignatureSubpacketVector subkey) {
+            this.master = master;
+            this.subkey = subkey;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.keyjolt.service;
+
+import com.keyjolt.config.KeyringProperties;
+import com.keyjolt.model.KeyType;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of keyring profiles, built once at startup for every key type.
+ *
+ * Two profiles are built in: "default", the algorithm preferences and the
+ * 65536 octet iterated S2K KeyJolt has always used, and "modern", which
+ * drops SHA-1, SHA-224, CAST5 and 3DES and hashes 8 MiB per passphrase
+ * derivation. Profiles under {@code app.keyring.profiles} add to or replace
+ * these; an invalid algorithm name fails startup rather than a request.
+ */
+@Component
+public class KeyringProfiles {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyringProfiles.class);
+
+    public static final String DEFAULT = "default";
+    public static final String MODERN = "modern";
+
+    @Autowired
+    private KeyringProperties properties;
+
+    private volatile Map<String, Map<KeyType, KeyringProfile>> profiles = Map.of();
+    private volatile String defaultProfile = DEFAULT;
+
+    @PostConstruct
+    public void init() {
+        Map<String, KeyringProperties.Profile> definitions = new LinkedHashMap<>();
+        definitions.put(DEFAULT, builtInDefault());
+        definitions.put(MODERN, builtInModern());
+        definitions.putAll(properties.getProfiles());
+
+        KeyringProperties.Profile fallback = builtInDefault();
+        Map<String, Map<KeyType, KeyringProfile>> built = new LinkedHashMap<>();
+        definitions.forEach((name, definition) -> built.put(name, build(name, definition, fallback)));
+
+        String configuredDefault = properties.getDefaultProfile();
+        if (!built.containsKey(configuredDefault)) {
+            throw new IllegalStateException("app.keyring.default-profile '" + configuredDefault
+                + "' is not a keyring profile; known profiles are " + built.keySet());
+        }
+        profiles = Collections.unmodifiableMap(built);
+        defaultProfile = configuredDefault;
+        built.forEach((name, byType) ->
+            logger.info("Keyring profile '{}' protects passphrases with {}", name, byType.get(KeyType.RSA).getProtection()));
+        logger.info("Keyring profiles {} ready, default '{}'", built.keySet(), configuredDefault);
+    }
+
+    /**
+     * Profile for the given name and key type; a null or blank name means
+     * the configured default
+     */
+    public KeyringProfile get(String name, KeyType keyType) {
+        Map<KeyType, KeyringProfile> byType = profiles.get(resolve(name));
+        if (byType == null) {
+            throw new IllegalArgumentException("Unknown keyring profile '" + name + "'");
+        }
+        return byType.get(keyType);
+    }
+
+    /**
+     * Whether a request naming this profile can be served; null means the default
+     */
+    public boolean contains(String name) {
+        return profiles.containsKey(resolve(name));
+    }
+
+    public Set<String> names() {
+        return profiles.keySet();
+    }
+
+    public String getDefaultProfile() {
+        return defaultProfile;
+    }
+
+    private String resolve(String name) {
+        return name == null || name.isBlank() ? defaultProfile : name.trim();
+    }
+
+    private static Map<KeyType, KeyringProfile> build(String name, KeyringProperties.Profile definition,
+                                                      KeyringProperties.Profile fallback) {
+        int[] hashes = KeyringProfile.hashAlgorithms(
+            orElse(definition.getHashAlgorithms(), fallback.getHashAlgorithms()));
+        int[] symmetric = KeyringProfile.symmetricAlgorithms(
+            orElse(definition.getSymmetricAlgorithms(), fallback.getSymmetricAlgorithms()));
+        SecretKeyProtection protection = protection(definition, fallback);
+        if (hashes.length == 0 || symmetric.length == 0) {
+            throw new IllegalArgumentException("Keyring profile '" + name + "' must list at least one hash"
+                + " and one symmetric algorithm");
+        }
+
+        Map<KeyType, KeyringProfile> byType = new EnumMap<>(KeyType.class);
+        for (KeyType keyType : KeyType.values()) {
+            byType.put(keyType, new KeyringProfile(name, keyType, hashes, symmetric, protection));
+        }
+        return Collections.unmodifiableMap(byType);
+    }
+
+    private static SecretKeyProtection protection(KeyringProperties.Profile definition,
+                                                  KeyringProperties.Profile fallback) {
+        int cipher = KeyringProfile.symmetricAlgorithm(orElse(definition.getS2kCipher(), fallback.getS2kCipher()));
+        SecretKeyProtection.Mode mode = SecretKeyProtection.mode(orElse(definition.getS2kMode(), fallback.getS2kMode()));
+        if (mode == SecretKeyProtection.Mode.ARGON2) {
+            return SecretKeyProtection.argon2(cipher,
+                orElse(definition.getArgon2Passes(), fallback.getArgon2Passes()),
+                orElse(definition.getArgon2Parallelism(), fallback.getArgon2Parallelism()),
+                orElse(definition.getArgon2MemoryExponent(), fallback.getArgon2MemoryExponent()));
+        }
+        return SecretKeyProtection.iterated(cipher,
+            KeyringProfile.hashAlgorithm(orElse(definition.getS2kHash(), fallback.getS2kHash())),
+            orElse(definition.getS2kIterations(), fallback.getS2kIterations()));
+    }
+
+    private static <T> T orElse(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private static KeyringProperties.Profile builtInDefault() {
+        KeyringProperties.Profile profile = new KeyringProperties.Profile();
+        profile.setHashAlgorithms(List.of("SHA256", "SHA1", "SHA384", "SHA512", "SHA224"));
+        profile.setSymmetricAlgorithms(List.of("AES256", "AES192", "AES128", "CAST5", "TRIPLEDES"));
+        profile.setS2kCipher("AES256");
+        profile.setS2kHash("SHA256");
+        profile.setS2kMode("iterated");
+        profile.setS2kIterations(65536L);
+        // RFC 9580 recommendation for memory constrained environments (64 MiB)
+        profile.setArgon2Passes(3);
+        profile.setArgon2Parallelism(4);
+        profile.setArgon2MemoryExponent(16);
+        return profile;
+    }
+
+    private static KeyringProperties.Profile builtInModern() {
+        KeyringProperties.Profile profile = new KeyringProperties.Profile();
+        profile.setHashAlgorithms(List.of("SHA512", "SHA384", "SHA256"));
+        profile.setSymmetricAlgorithms(List.of("AES256", "AES192", "AES128"));
+        profile.setS2kCipher("AES256");
+        profile.setS2kHash("SHA256");
+        profile.setS2kMode("iterated");
+        profile.setS2kIterations(8388608L);
+        return profile;
+    }
+}
@@ -1,26 +1,21 @@
 package com.keyjolt.service;
 
+import com.keyjolt.metrics.GenerationMetrics;
+import com.keyjolt.model.GenerationStage;
 import com.keyjolt.model.KeyRequest;
-import com.keyjolt.util.FileUtils;
+import com.keyjolt.model.KeyType;
+import com.keyjolt.random.RandomnessProvider;
+import com.keyjolt.store.ArtifactStore;
+import com.keyjolt.store.StoredArtifact;
 import org.bouncycastle.bcpg.ArmoredOutputStream;
-import org.bouncycastle.bcpg.HashAlgorithmTags;
-import org.bouncycastle.bcpg.SymmetricKeyAlgorithmTags;
-import org.bouncycastle.bcpg.sig.Features;
-import org.bouncycastle.bcpg.sig.KeyFlags;
-import org.bouncycastle.crypto.generators.RSAKeyPairGenerator;
-import org.bouncycastle.crypto.params.RSAKeyGenerationParameters;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
 import org.bouncycastle.openpgp.*;
-import org.bouncycastle.openpgp.operator.PBESecretKeyEncryptor;
-import org.bouncycastle.openpgp.operator.PGPDigestCalculator;
-import org.bouncycastle.openpgp.operator.bc.*;
+import org.bouncycastle.openpgp.operator.bc.BcPGPKeyPair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.IOException;
-import java.math.BigInteger;
-import java.security.SecureRandom;
+import java.io.OutputStream;
 import java.util.Date;
 
 import org.slf4j.Logger;
@@ -33,108 +28,83 @@ import org.slf4j.LoggerFactory;
 public class PgpKeyService {
 
     private static final Logger logger = LoggerFactory.getLogger(PgpKeyService.class);
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
     
     @Autowired
-    private FileUtils fileUtils;
-    
-    private static final int[] PREFERRED_HASH_ALGORITHMS = {
-        HashAlgorithmTags.SHA256,
-        HashAlgorithmTags.SHA1,
-        HashAlgorithmTags.SHA384,
-        HashAlgorithmTags.SHA512,
-        HashAlgorithmTags.SHA224
-    };
-    
-    private static final int[] PREFERRED_SYMMETRIC_ALGORITHMS = {
-        SymmetricKeyAlgorithmTags.AES_256,
-        SymmetricKeyAlgorithmTags.AES_192,
-        SymmetricKeyAlgorithmTags.AES_128,
-        SymmetricKeyAlgorithmTags.CAST5,
-        SymmetricKeyAlgorithmTags.TRIPLE_DES
-    };
-    
+    private ArtifactStore artifactStore;
+
+    @Autowired
+    private RsaKeyPool rsaKeyPool;
+
+    @Autowired
+    private CurveKeyGenerator curveKeyGenerator;
+
+    @Autowired
+    private RandomnessProvider randomness;
+
+    @Autowired
+    private GenerationMetrics metrics;
+
+    @Autowired
+    private KeyringProfiles keyringProfiles;
+
     /**
      * Generate a PGP key pair based on the request parameters
      */
     public PgpKeyPair generateKeyPair(KeyRequest request) throws Exception {
-        // Generate RSA key pair
-        RSAKeyPairGenerator generator = new RSAKeyPairGenerator();
-        generator.init(new RSAKeyGenerationParameters(
-            BigInteger.valueOf(65537),
-            SECURE_RANDOM,
-            request.getEncryptionStrength(),
-            80
-        ));
-        
-        org.bouncycastle.crypto.AsymmetricCipherKeyPair keyPair = generator.generateKeyPair();
-        
-        // Create PGP key pair
-        Date now = new Date();
-        Date expiry = null;
-        if (request.getKeyExpiry() > 0) {
-            expiry = new Date(now.getTime() + (request.getKeyExpiry() * 24L * 60L * 60L * 1000L));
-        }
-        
-        PGPDigestCalculator sha1Calc = new BcPGPDigestCalculatorProvider().get(HashAlgorithmTags.SHA1);
-        PGPKeyPair pgpKeyPair = new BcPGPKeyPair(PGPPublicKey.RSA_GENERAL, keyPair, now);
-        
-        // Create user ID
-        String userId = String.format("%s <%s>", request.getName(), request.getEmail());
-        
-        // Create signature subpacket generator for master key
-        PGPSignatureSubpacketGenerator masterSubpktGen = new PGPSignatureSubpacketGenerator();
-        masterSubpktGen.setKeyFlags(false, KeyFlags.CERTIFY_OTHER | KeyFlags.SIGN_DATA);
-        masterSubpktGen.setPreferredHashAlgorithms(false, PREFERRED_HASH_ALGORITHMS);
-        masterSubpktGen.setPreferredSymmetricAlgorithms(false, PREFERRED_SYMMETRIC_ALGORITHMS);
-        masterSubpktGen.setFeature(false, Features.FEATURE_MODIFICATION_DETECTION);
-        
-        if (expiry != null) {
-            masterSubpktGen.setKeyExpirationTime(false, (expiry.getTime() - now.getTime()) / 1000);
-        }
-        
-        // Create key ring generator
-        PBESecretKeyEncryptor secretKeyEncryptor = null;
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
-            BcPBESecretKeyEncryptorBuilder encryptorBuilder = new BcPBESecretKeyEncryptorBuilder(
-                PGPEncryptedData.AES_256,
-                new BcPGPDigestCalculatorProvider().get(HashAlgorithmTags.SHA256)
-            );
-            secretKeyEncryptor = encryptorBuilder.build(request.getPassword().toCharArray());
-        }
+        return generateKeyPair(request, GenerationProgressListener.NONE);
+    }
+
+    /**
+     * Generate a PGP key pair, reporting each stage to the given listener
+     */
+    public PgpKeyPair generateKeyPair(KeyRequest request, GenerationProgressListener listener) throws Exception {
+        // RSA key pairs come from the pre-generated pool, curve keys are generated inline
+        KeyType keyType = request.resolveKeyType();
+        listener.onStage(GenerationStage.MASTER_KEY);
+        AsymmetricCipherKeyPair masterKey = keyType == KeyType.RSA
+            ? rsaKeyPool.take(request.getEncryptionStrength())
+            : curveKeyGenerator.generateSigningKey(keyType);
+        listener.onStage(GenerationStage.SUBKEY);
+        AsymmetricCipherKeyPair encryptionKey = keyType == KeyType.RSA
+            ? rsaKeyPool.take(request.getEncryptionStrength())
+            : curveKeyGenerator.generateEncryptionKey(keyType);
+
+        return generateKeyPair(request, masterKey, encryptionKey, listener);
+    }
+
+    /**
+     * Build, armor and write a PGP key ring around already generated master
+     * and encryption subkey material. Curve keys use the v4 encodings GnuPG
+     * understands: EdDSA (legacy) with Curve25519 ECDH, or ECDSA with ECDH
+     * on the same NIST curve.
+     */
+    public PgpKeyPair generateKeyPair(KeyRequest request,
+                                      AsymmetricCipherKeyPair masterKey,
+                                      AsymmetricCipherKeyPair encryptionKey,
+                                      GenerationProgressListener listener) throws Exception {
+        long start = System.nanoTime();
+        KeyringProfile profile = keyringProfiles.get(request.getProfile(), request.resolveKeyType());
+        PGPKeyRingGenerator keyRingGen = newKeyRingGenerator(profile, request, masterKey, encryptionKey);
 
-        PGPKeyRingGenerator keyRingGen = new PGPKeyRingGenerator(
-            PGPSignature.POSITIVE_CERTIFICATION,
-            pgpKeyPair,
-            userId,
-            sha1Calc,
-            masterSubpktGen.generate(),
-            null,
-            new BcPGPContentSignerBuilder(pgpKeyPair.getPublicKey().getAlgorithm(), HashAlgorithmTags.SHA256),
-            secretKeyEncryptor // Pass the encryptor
-        );
-        
-        // Generate encryption subkey
-        PGPKeyPair encKeyPair = new BcPGPKeyPair(PGPPublicKey.RSA_GENERAL, generator.generateKeyPair(), now);
-        PGPSignatureSubpacketGenerator encSubpktGen = new PGPSignatureSubpacketGenerator();
-        encSubpktGen.setKeyFlags(false, KeyFlags.ENCRYPT_COMMS | KeyFlags.ENCRYPT_STORAGE);
-        
-        if (expiry != null) {
-            encSubpktGen.setKeyExpirationTime(false, (expiry.getTime() - now.getTime()) / 1000);
-        }
-        
-        keyRingGen.addSubKey(encKeyPair, encSubpktGen.generate(), null);
-        
         // Generate key rings
         PGPPublicKeyRing publicKeyRing = keyRingGen.generatePublicKeyRing();
-        PGPSecretKeyRing secretKeyRing = keyRingGen.generateSecretKeyRing();
+        PGPSecretKeyRing unprotectedRing = keyRingGen.generateSecretKeyRing();
+        start = metrics.recordStage(GenerationMetrics.KEYRING_BUILD, request, start);
+
+        // Passphrase protection runs as its own step so its cost shows up on its own
+        PGPSecretKeyRing secretKeyRing = unprotectedRing;
+        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+            listener.onStage(GenerationStage.PROTECTING);
+            secretKeyRing = profile.protect(unprotectedRing, request.getPassword().toCharArray(), randomness.strong());
+            start = metrics.recordPassphraseProtection(profile.getName(), profile.getProtection().getMode().tag(),
+                request, start);
+        }
+        PGPSecretKeyRing armoredSecretKeyRing = secretKeyRing;
+        listener.onStage(GenerationStage.ARMORING);
         
         // Get key ID
         String keyId = Long.toHexString(publicKeyRing.getPublicKey().getKeyID()).toUpperCase();
         
-        String publicKeyArmored = exportArmored(publicKeyRing);
-        String privateKeyArmored = exportArmored(secretKeyRing);
-        
         // Create filenames
         String baseFilename = String.format("%s_%s", 
             request.getSanitizedEmail(), 
@@ -143,20 +113,74 @@ public class PgpKeyService {
         String publicKeyFilename = String.format("%s_pubkey_%s.asc", baseFilename, keyId);
         String privateKeyFilename = String.format("%s_seckey_%s.asc", baseFilename, keyId);
         
-        // Write files
-        File publicKeyFile = fileUtils.writeToTempFile(publicKeyFilename, publicKeyArmored);
-        File privateKeyFile = fileUtils.writeToTempFile(privateKeyFilename, privateKeyArmored);
+        // Armor straight into the artifact store
+        StoredArtifact publicKeyFile = artifactStore.store(publicKeyFilename,
+            out -> exportArmored(publicKeyRing, out));
+        StoredArtifact privateKeyFile = artifactStore.store(privateKeyFilename,
+            out -> exportArmored(armoredSecretKeyRing, out));
+        metrics.recordStage(GenerationMetrics.ARMOR, request, start);
+        
+        return new PgpKeyPair(keyId, publicKeyFile, privateKeyFile);
+    }
+    
+    /**
+     * Build, protect and armor a throwaway key ring of each curve type
+     * without storing it, so the first real request finds the Bouncy Castle
+     * classes loaded and their hot paths compiled. RSA is warmed by the key pool.
+     */
+    public void warmUp() throws Exception {
+        for (KeyType keyType : new KeyType[] {KeyType.ED25519, KeyType.ECDSA_P256}) {
+            KeyRequest request = new KeyRequest("Warm Up", "warmup@keyjolt.invalid", null, 0, false, null);
+            request.setKeyType(keyType.name());
+            KeyringProfile profile = keyringProfiles.get(null, keyType);
+            PGPKeyRingGenerator keyRingGen = newKeyRingGenerator(profile, request,
+                curveKeyGenerator.generateSigningKey(keyType), curveKeyGenerator.generateEncryptionKey(keyType));
+            exportArmored(keyRingGen.generatePublicKeyRing(), OutputStream.nullOutputStream());
+            PGPSecretKeyRing protectedRing = profile.protect(keyRingGen.generateSecretKeyRing(),
+                "warm up passphrase".toCharArray(), randomness.strong());
+            exportArmored(protectedRing, OutputStream.nullOutputStream());
+        }
+    }
+
+    /**
+     * Key ring generator holding the certified master key and the encryption
+     * subkey, both unprotected. Subpackets and signer builders come
+     * precomputed from the keyring profile; only the user id, expiry and key
+     * material are per request.
+     */
+    private PGPKeyRingGenerator newKeyRingGenerator(KeyringProfile profile,
+                                                   KeyRequest request,
+                                                   AsymmetricCipherKeyPair masterKey,
+                                                   AsymmetricCipherKeyPair encryptionKey) throws PGPException {
+        int expiryDays = request.getKeyExpiry() != null ? request.getKeyExpiry() : 0;
+        Date now = new Date();
+        PGPKeyPair pgpKeyPair = new BcPGPKeyPair(profile.getSigningAlgorithm(), masterKey, now);
+        
+        // Create user ID
+        String userId = String.format("%s <%s>", request.getName(), request.getEmail());
+        
+        PGPKeyRingGenerator keyRingGen = new PGPKeyRingGenerator(
+            PGPSignature.POSITIVE_CERTIFICATION,
+            pgpKeyPair,
+            userId,
+            profile.newChecksumCalculator(),
+            profile.masterSubpackets(expiryDays),
+            null,
+            profile.getSignerBuilder(),
+            null
+        );
         
-        return new PgpKeyPair(keyId, publicKeyFile, privateKeyFile, publicKeyArmored, privateKeyArmored);
+        // Add encryption subkey
+        PGPKeyPair encKeyPair = new BcPGPKeyPair(profile.getEncryptionAlgorithm(), encryptionKey, now);
+        keyRingGen.addSubKey(encKeyPair, profile.subkeySubpackets(expiryDays), null);
+        return keyRingGen;
     }
     
-    private String exportArmored(PGPKeyRing keyRing) throws IOException {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
+    static void exportArmored(PGPKeyRing keyRing, OutputStream out) throws IOException {
         try (ArmoredOutputStream armoredOut = new ArmoredOutputStream(out)) {
             armoredOut.setHeader("Comment", "Key created by KeyJolt \u2013 https://keyjolt.dev");
             keyRing.encode(armoredOut);
         }
-        return out.toString("UTF-8");
     }
     
     /**
@@ -164,25 +188,18 @@ public class PgpKeyService {
      */
     public static class PgpKeyPair {
         private final String keyId;
-        private final File publicKeyFile;
-        private final File privateKeyFile;
-        private final String publicKeyContent;
-        private final String privateKeyContent;
+        private final StoredArtifact publicKeyFile;
+        private final StoredArtifact privateKeyFile;
         
-        public PgpKeyPair(String keyId, File publicKeyFile, File privateKeyFile, 
-                         String publicKeyContent, String privateKeyContent) {
+        public PgpKeyPair(String keyId, StoredArtifact publicKeyFile, StoredArtifact privateKeyFile) {
             this.keyId = keyId;
             this.publicKeyFile = publicKeyFile;
             this.privateKeyFile = privateKeyFile;
-            this.publicKeyContent = publicKeyContent;
-            this.privateKeyContent = privateKeyContent;
         }
         
         // Getters
         public String getKeyId() { return keyId; }
-        public File getPublicKeyFile() { return publicKeyFile; }
-        public File getPrivateKeyFile() { return privateKeyFile; }
-        public String getPublicKeyContent() { return publicKeyContent; }
-        public String getPrivateKeyContent() { return privateKeyContent; }
+        public StoredArtifact getPublicKeyFile() { return publicKeyFile; }
+        public StoredArtifact getPrivateKeyFile() { return privateKeyFile; }
     }
 }
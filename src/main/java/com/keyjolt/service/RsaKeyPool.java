@@ -0,0 +1,191 @@
+package com.keyjolt.service;
+
+import com.keyjolt.model.KeyRequest;
+import com.keyjolt.random.RandomnessProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.generators.RSAKeyPairGenerator;
+import org.bouncycastle.crypto.params.RSAKeyGenerationParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background-filled pool of pre-generated RSA key pairs.
+ *
+ * One bounded queue is kept per allowed encryption strength. Request threads
+ * take ready key material from the queue and fall back to inline generation
+ * when it is empty. A key pair is removed from its queue when taken, so each
+ * pooled key is handed out exactly once.
+ */
+@Component
+public class RsaKeyPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(RsaKeyPool.class);
+    private static final BigInteger PUBLIC_EXPONENT = BigInteger.valueOf(65537);
+    private static final int CERTAINTY = 80;
+
+    @Autowired
+    private RandomnessProvider randomness;
+
+    @Value("${app.key-pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.key-pool.depth:8}")
+    private int depth;
+
+    @Value("${app.key-pool.refill-threads:1}")
+    private int refillThreads;
+
+    @Value("${app.key-pool.low-water:2}")
+    private int lowWater;
+
+    private final Map<Integer, BlockingQueue<AsymmetricCipherKeyPair>> queues = new HashMap<>();
+    private final Map<Integer, AtomicInteger> pending = new HashMap<>();
+    private ExecutorService refillExecutor;
+
+    @PostConstruct
+    public void init() {
+        init(KeyRequest.ALLOWED_STRENGTHS);
+    }
+
+    /**
+     * Start the pool for the given strengths; tests use small keys
+     */
+    void init(Set<Integer> strengths) {
+        if (!enabled || depth <= 0) {
+            logger.info("RSA key pool disabled, keys will be generated on demand");
+            return;
+        }
+
+        for (int strength : strengths) {
+            queues.put(strength, new ArrayBlockingQueue<>(depth));
+            pending.put(strength, new AtomicInteger());
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        refillExecutor = Executors.newFixedThreadPool(Math.max(1, refillThreads), r -> {
+            Thread t = new Thread(r, "key-pool-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+
+        logger.info("RSA key pool enabled (depth={}, low-water={}, refill-threads={})",
+            depth, lowWater, refillThreads);
+        queues.keySet().forEach(this::refill);
+    }
+
+    /**
+     * Take a key pair of the given strength. Pooled material is used when
+     * available; otherwise a key pair is generated on the calling thread.
+     */
+    public AsymmetricCipherKeyPair take(int strength) {
+        BlockingQueue<AsymmetricCipherKeyPair> queue = queues.get(strength);
+        if (queue == null) {
+            return generate(strength);
+        }
+
+        AsymmetricCipherKeyPair keyPair = queue.poll();
+        if (queue.size() <= lowWater) {
+            refill(strength);
+        }
+
+        if (keyPair == null) {
+            logger.debug("RSA key pool empty for strength {}, generating inline", strength);
+            return generate(strength);
+        }
+        return keyPair;
+    }
+
+    /**
+     * Return a key pair that was taken but never used, for example by a
+     * request that failed while it was being generated. It is dropped when
+     * the strength is not pooled, the queue is full or the pool is shut down.
+     */
+    public void restore(int strength, AsymmetricCipherKeyPair keyPair) {
+        BlockingQueue<AsymmetricCipherKeyPair> queue = queues.get(strength);
+        if (queue != null && !refillExecutor.isShutdown()) {
+            queue.offer(keyPair);
+        }
+    }
+
+    /**
+     * Number of ready key pairs for the given strength
+     */
+    public int available(int strength) {
+        BlockingQueue<AsymmetricCipherKeyPair> queue = queues.get(strength);
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * Generate a fresh RSA key pair without touching the pool
+     */
+    public AsymmetricCipherKeyPair generate(int strength) {
+        RSAKeyPairGenerator generator = new RSAKeyPairGenerator();
+        generator.init(new RSAKeyGenerationParameters(
+            PUBLIC_EXPONENT,
+            randomness.strong(),
+            strength,
+            CERTAINTY
+        ));
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * Submit enough background tasks to bring the queue back up to depth.
+     * Tasks already in flight count towards the target so concurrent
+     * triggers never overfill the pool.
+     */
+    private void refill(int strength) {
+        BlockingQueue<AsymmetricCipherKeyPair> queue = queues.get(strength);
+        AtomicInteger inFlight = pending.get(strength);
+
+        while (true) {
+            int current = inFlight.get();
+            if (queue.size() + current >= depth) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            try {
+                refillExecutor.execute(() -> {
+                    try {
+                        queue.offer(generate(strength));
+                    } catch (RuntimeException e) {
+                        logger.error("Failed to pre-generate RSA key (strength={})", strength, e);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refillExecutor != null) {
+            logger.info("Shutting down RSA key pool");
+            refillExecutor.shutdownNow();
+        }
+        queues.values().forEach(BlockingQueue::clear);
+    }
+}
@@ -0,0 +1,231 @@
+package com.keyjolt.service;
+
+import org.bouncycastle.bcpg.AEADAlgorithmTags;
+import org.bouncycastle.bcpg.HashAlgorithmTags;
+import org.bouncycastle.bcpg.S2K;
+import org.bouncycastle.openpgp.PGPException;
+import org.bouncycastle.openpgp.PGPSecretKey;
+import org.bouncycastle.openpgp.PGPSecretKeyRing;
+import org.bouncycastle.openpgp.operator.PBESecretKeyEncryptor;
+import org.bouncycastle.openpgp.operator.PGPDigestCalculator;
+import org.bouncycastle.openpgp.operator.bc.BcAEADSecretKeyEncryptorBuilder;
+import org.bouncycastle.openpgp.operator.bc.BcPBESecretKeyEncryptorBuilder;
+import org.bouncycastle.openpgp.operator.bc.BcPGPDigestCalculatorProvider;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How a secret key ring is protected with a passphrase: the S2K (string to
+ * key) function that turns the passphrase into a key, and its cost.
+ *
+ * <ul>
+ *   <li>Iterated and salted S2K hashes the salted passphrase until the
+ *       configured number of octets has been processed, then encrypts with
+ *       CFB and a SHA-1 checksum. Every OpenPGP implementation reads it.
+ *       All keys of a ring share one salt, so the key is derived once per
+ *       ring instead of once per secret key.</li>
+ *   <li>Argon2 S2K (RFC 9580) is memory hard and is only defined together
+ *       with AEAD (OCB) protection. Bouncy Castle derives it per secret
+ *       key, so a ring pays for it twice. GnuPG 2.4 cannot read it.</li>
+ * </ul>
+ */
+public final class SecretKeyProtection {
+
+    public enum Mode {
+        ITERATED, ARGON2;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        static Mode fromName(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown S2K mode '" + name + "', expected iterated or argon2");
+            }
+        }
+    }
+
+    // Iterated S2K octet counts representable in the one-octet coded form
+    static final long MIN_ITERATIONS = 1024;
+    static final long MAX_ITERATIONS = 65011712;
+
+    private static final BcPGPDigestCalculatorProvider DIGESTS = new BcPGPDigestCalculatorProvider();
+
+    private final Mode mode;
+    private final int cipher;
+    private final int hash;
+    private final int codedCount;
+    private final int argon2Passes;
+    private final int argon2Parallelism;
+    private final int argon2MemoryExponent;
+
+    private SecretKeyProtection(Mode mode, int cipher, int hash, int codedCount,
+                                int argon2Passes, int argon2Parallelism, int argon2MemoryExponent) {
+        this.mode = mode;
+        this.cipher = cipher;
+        this.hash = hash;
+        this.codedCount = codedCount;
+        this.argon2Passes = argon2Passes;
+        this.argon2Parallelism = argon2Parallelism;
+        this.argon2MemoryExponent = argon2MemoryExponent;
+    }
+
+    /**
+     * Iterated and salted S2K hashing at least {@code iterations} octets,
+     * rounded up to the next count the coded form can express
+     */
+    public static SecretKeyProtection iterated(int cipher, int hash, long iterations) {
+        if (iterations < MIN_ITERATIONS || iterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("S2K iterations must be between " + MIN_ITERATIONS
+                + " and " + MAX_ITERATIONS + ", got " + iterations);
+        }
+        return new SecretKeyProtection(Mode.ITERATED, cipher, hash, encodeCount(iterations), 0, 0, 0);
+    }
+
+    /**
+     * Argon2 S2K using {@code 2^memoryExponent} KiB of memory per derivation
+     */
+    public static SecretKeyProtection argon2(int cipher, int passes, int parallelism, int memoryExponent) {
+        if (passes < 1 || parallelism < 1 || parallelism > 255) {
+            throw new IllegalArgumentException("Argon2 needs at least one pass and 1 to 255 lanes");
+        }
+        // RFC 9580: at least 8 KiB per lane, and the exponent fits in 31 bits of memory size
+        int minExponent = 3 + (32 - Integer.numberOfLeadingZeros(parallelism - 1));
+        if (memoryExponent < minExponent || memoryExponent > 30) {
+            throw new IllegalArgumentException("Argon2 memory exponent must be between " + minExponent
+                + " and 30 for " + parallelism + " lanes, got " + memoryExponent);
+        }
+        return new SecretKeyProtection(Mode.ARGON2, cipher, HashAlgorithmTags.SHA256, 0,
+            passes, parallelism, memoryExponent);
+    }
+
+    static Mode mode(String name) {
+        return Mode.fromName(name);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Octets hashed by iterated S2K, 0 for Argon2
+     */
+    public long getIterations() {
+        return mode == Mode.ITERATED ? decodeCount(codedCount) : 0;
+    }
+
+    public int getArgon2MemoryExponent() {
+        return argon2MemoryExponent;
+    }
+
+    /**
+     * Copy of the unprotected ring with every secret key encrypted under the
+     * passphrase. The passphrase is zeroed when this returns, as is the key
+     * derived from it.
+     */
+    public PGPSecretKeyRing protect(PGPSecretKeyRing ring, char[] passphrase, SecureRandom random)
+            throws PGPException {
+        List<PGPSecretKey> keys = new ArrayList<>();
+        SharedKeyEncryptor shared = null;
+        try {
+            if (mode == Mode.ITERATED) {
+                shared = new SharedKeyEncryptor(cipher, DIGESTS.get(hash), codedCount, random, passphrase);
+                for (PGPSecretKey key : ring) {
+                    keys.add(PGPSecretKey.copyWithNewPassword(key, null, shared,
+                        DIGESTS.get(HashAlgorithmTags.SHA1)));
+                }
+            } else {
+                S2K.Argon2Params params = new S2K.Argon2Params(argon2Passes, argon2Parallelism,
+                    argon2MemoryExponent, random);
+                for (PGPSecretKey key : ring) {
+                    PBESecretKeyEncryptor encryptor = new BcAEADSecretKeyEncryptorBuilder(AEADAlgorithmTags.OCB,
+                        cipher, params)
+                        .setSecureRandom(random)
+                        .build(passphrase, key.getPublicKey().getPublicKeyPacket());
+                    keys.add(PGPSecretKey.copyWithNewPassword(key, null, encryptor));
+                }
+            }
+        } finally {
+            // The encryptors keep a reference to this array rather than a copy
+            Arrays.fill(passphrase, '\0');
+            if (shared != null) {
+                shared.clear();
+            }
+        }
+        return new PGPSecretKeyRing(keys);
+    }
+
+    /**
+     * Smallest one-octet coded count (RFC 4880 3.7.1.3) covering the given octets
+     */
+    static int encodeCount(long iterations) {
+        for (int coded = 0; coded < 256; coded++) {
+            if (decodeCount(coded) >= iterations) {
+                return coded;
+            }
+        }
+        return 255;
+    }
+
+    static long decodeCount(int coded) {
+        return (16L + (coded & 15)) << ((coded >> 4) + 6);
+    }
+
+    @Override
+    public String toString() {
+        return mode == Mode.ITERATED
+            ? "iterated(" + getIterations() + " octets)"
+            : "argon2(t=" + argon2Passes + ", p=" + argon2Parallelism + ", m=2^" + argon2MemoryExponent + " KiB)";
+    }
+
+    /**
+     * Iterated S2K encryptor that derives the key once. Bouncy Castle keeps
+     * the salt after the first secret key but runs the S2K again for every
+     * key; the derived key is the same each time. Encryption itself, with a
+     * fresh IV per key, is left to Bouncy Castle's own encryptor.
+     */
+    private static final class SharedKeyEncryptor extends PBESecretKeyEncryptor {
+
+        private final PBESecretKeyEncryptor cipher;
+        private byte[] key;
+
+        SharedKeyEncryptor(int algorithm, PGPDigestCalculator s2kDigest, int codedCount,
+                           SecureRandom random, char[] passphrase) {
+            super(algorithm, s2kDigest, codedCount, random, passphrase);
+            this.cipher = new BcPBESecretKeyEncryptorBuilder(algorithm, s2kDigest, codedCount)
+                .setSecureRandom(random)
+                .build(passphrase);
+        }
+
+        @Override
+        public byte[] getKey() throws PGPException {
+            if (key == null) {
+                key = super.getKey();
+            }
+            return key;
+        }
+
+        void clear() {
+            if (key != null) {
+                Arrays.fill(key, (byte) 0);
+                key = null;
+            }
+        }
+
+        @Override
+        public byte[] encryptKeyData(byte[] key, byte[] keyData, int keyOff, int keyLen) throws PGPException {
+            return cipher.encryptKeyData(key, keyData, keyOff, keyLen);
+        }
+
+        @Override
+        public byte[] getCipherIV() {
+            return cipher.getCipherIV();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.keyjolt.service;
+
+/**
+ * Thrown when key generation is at capacity and the request could not be
+ * admitted within its queueing deadline
+ */
+public class ServiceOverloadedException extends Exception {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Suggested client back-off, in whole seconds
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -2,75 +2,195 @@ package com.keyjolt.service;
 
 import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.KeyPair;
+import com.keyjolt.metrics.GenerationMetrics;
+import com.keyjolt.model.GenerationStage;
 import com.keyjolt.model.KeyRequest;
-import com.keyjolt.util.FileUtils;
+import com.keyjolt.model.KeyType;
+import com.keyjolt.store.ArtifactStore;
+import com.keyjolt.store.StoredArtifact;
+import org.bouncycastle.asn1.pkcs.RSAPrivateKey;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
+import org.bouncycastle.crypto.params.RSAPrivateCrtKeyParameters;
+import org.bouncycastle.crypto.util.OpenSSHPrivateKeyUtil;
+import org.bouncycastle.crypto.util.OpenSSHPublicKeyUtil;
+import org.bouncycastle.util.io.pem.PemObject;
+import org.bouncycastle.util.io.pem.PemWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
-import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
 
 /**
- * Service for generating SSH key pairs using JSch
+ * Service for generating SSH key pairs. RSA keys are encoded with JSch;
+ * Ed25519 and ECDSA keys are encoded with Bouncy Castle's OpenSSH utilities
+ * because JSch cannot write EdDSA private keys.
  */
 @Service
 public class SshKeyService {
     
     @Autowired
-    private FileUtils fileUtils;
+    private ArtifactStore artifactStore;
+
+    @Autowired
+    private RsaKeyPool rsaKeyPool;
+
+    @Autowired
+    private CurveKeyGenerator curveKeyGenerator;
+
+    @Autowired
+    private GenerationMetrics metrics;
     
     /**
      * Generate SSH key pair based on request parameters
      */
     public SshKeyPair generateKeyPair(KeyRequest request) throws Exception {
+        return generateKeyPair(request, GenerationProgressListener.NONE);
+    }
+
+    /**
+     * Generate SSH key pair, reporting progress to the given listener
+     */
+    public SshKeyPair generateKeyPair(KeyRequest request, GenerationProgressListener listener) throws Exception {
+        listener.onStage(GenerationStage.SSH);
+        KeyType keyType = request.resolveKeyType();
+        return generateKeyPair(request, keyType == KeyType.RSA
+            ? rsaKeyPool.take(request.getEncryptionStrength())
+            : curveKeyGenerator.generateSigningKey(keyType));
+    }
+
+    /**
+     * Encode and write an SSH key pair around already generated key material
+     */
+    public SshKeyPair generateKeyPair(KeyRequest request, AsymmetricCipherKeyPair keyMaterial) throws Exception {
+        long start = System.nanoTime();
+        SshKeyPair keyPair = keyMaterial.getPrivate() instanceof RSAPrivateCrtKeyParameters
+            ? generateRsaKeyPair(request, keyMaterial)
+            : generateCurveKeyPair(request, keyMaterial);
+        metrics.recordStage(GenerationMetrics.SSH_ENCODE, request, start);
+        return keyPair;
+    }
+
+    /**
+     * Encode RSA key material with JSch
+     */
+    private SshKeyPair generateRsaKeyPair(KeyRequest request, AsymmetricCipherKeyPair keyMaterial) throws Exception {
         JSch jsch = new JSch();
-        KeyPair keyPair = KeyPair.genKeyPair(jsch, KeyPair.RSA, request.getEncryptionStrength());
+        KeyPair keyPair = toJschKeyPair(jsch, keyMaterial);
         try {
             String comment = String.format("%s@%s", request.getName(), request.getEmail());
             keyPair.setPublicKeyComment(comment);
 
-            ByteArrayOutputStream publicKeyOut = new ByteArrayOutputStream();
-            keyPair.writePublicKey(publicKeyOut, comment);
-            String publicKeyContent = publicKeyOut.toString("UTF-8");
-
-            ByteArrayOutputStream privateKeyOut = new ByteArrayOutputStream();
-            keyPair.writePrivateKey(privateKeyOut);
-            String privateKeyContent = privateKeyOut.toString("UTF-8");
-
             String baseFilename = String.format("%s_%s",
                 request.getSanitizedEmail(),
                 request.getSanitizedName());
 
-            File publicKeyFile = fileUtils.writeToTempFile(baseFilename + "_ssh_pub.key", publicKeyContent);
-            File privateKeyFile = fileUtils.writeToTempFile(baseFilename + "_ssh_priv.key", privateKeyContent);
+            // JSch encodes straight into the artifact store
+            StoredArtifact publicKeyFile = artifactStore.store(baseFilename + "_ssh_pub.key",
+                out -> keyPair.writePublicKey(out, comment));
+            StoredArtifact privateKeyFile = artifactStore.store(baseFilename + "_ssh_priv.key",
+                out -> keyPair.writePrivateKey(out));
 
-            return new SshKeyPair(publicKeyFile, privateKeyFile, publicKeyContent, privateKeyContent);
+            return new SshKeyPair(publicKeyFile, privateKeyFile);
         } finally {
             keyPair.dispose();
         }
     }
     
+    /**
+     * Encode Ed25519 or ECDSA key material as an OpenSSH public key line and
+     * an unencrypted private key (openssh-key-v1 for Ed25519, SEC1 for ECDSA)
+     */
+    private SshKeyPair generateCurveKeyPair(KeyRequest request, AsymmetricCipherKeyPair keyMaterial) throws Exception {
+        String comment = String.format("%s@%s", request.getName(), request.getEmail());
+
+        byte[] publicBlob = OpenSSHPublicKeyUtil.encodePublicKey(keyMaterial.getPublic());
+        byte[] publicLine = String.format("%s %s %s\n",
+            sshKeyTypeName(publicBlob), Base64.getEncoder().encodeToString(publicBlob), comment)
+            .getBytes(StandardCharsets.UTF_8);
+
+        String pemType = keyMaterial.getPrivate() instanceof Ed25519PrivateKeyParameters
+            ? "OPENSSH PRIVATE KEY"
+            : "EC PRIVATE KEY";
+
+        String baseFilename = String.format("%s_%s",
+            request.getSanitizedEmail(),
+            request.getSanitizedName());
+
+        StoredArtifact publicKeyFile = artifactStore.store(baseFilename + "_ssh_pub.key", publicLine);
+        byte[] privateBlob = OpenSSHPrivateKeyUtil.encodePrivateKey(keyMaterial.getPrivate());
+        try {
+            StoredArtifact privateKeyFile = artifactStore.store(baseFilename + "_ssh_priv.key",
+                out -> writePem(out, pemType, privateBlob));
+            return new SshKeyPair(publicKeyFile, privateKeyFile);
+        } finally {
+            Arrays.fill(privateBlob, (byte) 0);
+        }
+    }
+
+    /**
+     * PEM-encode into the given stream, leaving it open for the caller
+     */
+    private static void writePem(OutputStream out, String type, byte[] content) throws IOException {
+        PemWriter pemWriter = new PemWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII));
+        pemWriter.writeObject(new PemObject(type, content));
+        pemWriter.flush();
+    }
+
+    /**
+     * An SSH public key blob starts with its key type as a length-prefixed string
+     */
+    private static String sshKeyTypeName(byte[] publicBlob) {
+        int length = ((publicBlob[0] & 0xFF) << 24) | ((publicBlob[1] & 0xFF) << 16)
+            | ((publicBlob[2] & 0xFF) << 8) | (publicBlob[3] & 0xFF);
+        return new String(publicBlob, 4, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Wrap pooled Bouncy Castle RSA key material in a JSch key pair by
+     * round-tripping it through a PKCS#1 PEM block
+     */
+    private KeyPair toJschKeyPair(JSch jsch, AsymmetricCipherKeyPair keyPair) throws Exception {
+        RSAPrivateCrtKeyParameters key = (RSAPrivateCrtKeyParameters) keyPair.getPrivate();
+        byte[] der = new RSAPrivateKey(
+            key.getModulus(), key.getPublicExponent(), key.getExponent(),
+            key.getP(), key.getQ(), key.getDP(), key.getDQ(), key.getQInv()
+        ).getEncoded();
+
+        ByteArrayOutputStream pemOut = new ByteArrayOutputStream();
+        try (PemWriter pemWriter = new PemWriter(new OutputStreamWriter(pemOut, StandardCharsets.US_ASCII))) {
+            pemWriter.writeObject(new PemObject("RSA PRIVATE KEY", der));
+        }
+
+        byte[] pem = pemOut.toByteArray();
+        try {
+            return KeyPair.load(jsch, pem, null);
+        } finally {
+            Arrays.fill(der, (byte) 0);
+            Arrays.fill(pem, (byte) 0);
+        }
+    }
+
     /**
      * Inner class to hold SSH key pair information
      */
     public static class SshKeyPair {
-        private final File publicKeyFile;
-        private final File privateKeyFile;
-        private final String publicKeyContent;
-        private final String privateKeyContent;
+        private final StoredArtifact publicKeyFile;
+        private final StoredArtifact privateKeyFile;
         
-        public SshKeyPair(File publicKeyFile, File privateKeyFile, 
-                         String publicKeyContent, String privateKeyContent) {
+        public SshKeyPair(StoredArtifact publicKeyFile, StoredArtifact privateKeyFile) {
             this.publicKeyFile = publicKeyFile;
             this.privateKeyFile = privateKeyFile;
-            this.publicKeyContent = publicKeyContent;
-            this.privateKeyContent = privateKeyContent;
         }
         
         // Getters
-        public File getPublicKeyFile() { return publicKeyFile; }
-        public File getPrivateKeyFile() { return privateKeyFile; }
-        public String getPublicKeyContent() { return publicKeyContent; }
-        public String getPrivateKeyContent() { return privateKeyContent; }
+        public StoredArtifact getPublicKeyFile() { return publicKeyFile; }
+        public StoredArtifact getPrivateKeyFile() { return privateKeyFile; }
     }
 }
@@ -0,0 +1,86 @@
+package com.keyjolt.service;
+
+import com.keyjolt.util.ThreadFactories;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.security.Security;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work moved off the startup path until the port is open.
+ *
+ * Once the application is ready a low-priority background thread registers
+ * the Bouncy Castle JCA provider, creates the singletons left uninitialized
+ * by lazy initialization and builds throwaway curve key rings, so the first
+ * user request does not pay for class loading and bean creation.
+ */
+@Component
+public class StartupWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    @Value("${app.startup.warmup:true}")
+    private boolean enabled;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    // Resolved on the warm-up thread so a lazy context does not build it on the main thread
+    @Autowired
+    private ObjectProvider<PgpKeyService> pgpKeyService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread thread = ThreadFactories.platform("startup-warmup", true).newThread(this::warmUp);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        thread.start();
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+        if (!enabled) {
+            return;
+        }
+
+        int created = initializeLazySingletons();
+        try {
+            pgpKeyService.getObject().warmUp();
+        } catch (Exception e) {
+            logger.warn("Crypto warm-up failed: {}", e.getMessage(), e);
+        }
+        logger.info("Startup warm-up finished in {} ms ({} lazy beans initialized)",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), created);
+    }
+
+    private int initializeLazySingletons() {
+        int created = 0;
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getMergedBeanDefinition(name);
+            if (definition.isAbstract() || !definition.isSingleton() || !definition.isLazyInit()
+                    || beanFactory.containsSingleton(name)) {
+                continue;
+            }
+            try {
+                beanFactory.getBean(name);
+                created++;
+            } catch (BeansException e) {
+                logger.debug("Could not initialize lazy bean {}: {}", name, e.getMessage());
+            }
+        }
+        return created;
+    }
+}
@@ -0,0 +1,78 @@
+package com.keyjolt.store;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Short-lived storage for generated key files, keyed by a random download id
+ */
+public interface ArtifactStore {
+
+    Pattern TOKEN_PATTERN = Pattern.compile("^[0-9a-f]{32}$");
+
+    /**
+     * Store content under a fresh download id. The store takes ownership of
+     * the content array and may clear it once it has been copied.
+     */
+    StoredArtifact store(String filename, byte[] content) throws IOException;
+
+    /**
+     * Store content produced by the writer under a fresh download id. The
+     * writer encodes straight into the store's sink, so the content is never
+     * held in an intermediate copy. If the writer fails nothing is stored.
+     */
+    StoredArtifact store(String filename, ContentWriter writer) throws IOException;
+
+    /**
+     * Look up an artifact by download id, returning null if it is unknown or expired
+     */
+    StoredArtifact find(String id);
+
+    /**
+     * Group the artifacts of one generation under a fresh bundle token so
+     * they can be downloaded together
+     */
+    String storeBundle(List<StoredArtifact> artifacts) throws IOException;
+
+    /**
+     * Artifacts of a bundle that are still available, or null if the bundle
+     * is unknown or expired
+     */
+    List<StoredArtifact> findBundle(String token);
+
+    /**
+     * Encodes an artifact's content into the sink handed to it by the store
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Create a random 32 hex character token
+     */
+    static String newToken(SecureRandom random) {
+        byte[] token = new byte[16];
+        random.nextBytes(token);
+        return HexFormat.of().formatHex(token);
+    }
+
+    /**
+     * Create a download id of the form {@code <32 hex chars>_<filename>}
+     */
+    static String newId(SecureRandom random, String filename) {
+        return newToken(random) + "_" + filename;
+    }
+
+    /**
+     * Recover the original filename from a download id
+     */
+    static String filenameOf(String id) {
+        int separator = id.indexOf('_');
+        return separator == 32 ? id.substring(separator + 1) : id;
+    }
+}
@@ -0,0 +1,13 @@
+package com.keyjolt.store;
+
+import java.io.IOException;
+
+/**
+ * Thrown when storing an artifact would exceed the configured byte cap
+ */
+public class ArtifactStoreFullException extends IOException {
+
+    public ArtifactStoreFullException(String message) {
+        super(message);
+    }
+}
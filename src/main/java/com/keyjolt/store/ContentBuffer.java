@@ -0,0 +1,68 @@
+package com.keyjolt.store;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Growable in-memory sink for artifact content. Unlike ByteArrayOutputStream
+ * it zeroes every array it outgrows, refuses to grow past a byte limit and
+ * hands out its backing array instead of a copy.
+ */
+final class ContentBuffer extends OutputStream {
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private final long limit;
+    private byte[] buf;
+    private int count;
+
+    ContentBuffer(int initialCapacity, long limit) {
+        this.limit = Math.min(limit, MAX_ARRAY_SIZE);
+        this.buf = new byte[(int) Math.max(0, Math.min(initialCapacity, this.limit))];
+    }
+
+    @Override
+    public void write(int b) throws ArtifactStoreFullException {
+        ensureCapacity(count + 1L);
+        buf[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws ArtifactStoreFullException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureCapacity((long) count + len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    private void ensureCapacity(long needed) throws ArtifactStoreFullException {
+        if (needed <= buf.length) {
+            return;
+        }
+        if (needed > limit) {
+            wipe();
+            throw new ArtifactStoreFullException("Artifact store is full");
+        }
+        long grown = Math.min(Math.max(needed, buf.length * 2L), limit);
+        byte[] larger = Arrays.copyOf(buf, (int) grown);
+        Arrays.fill(buf, (byte) 0);
+        buf = larger;
+    }
+
+    /**
+     * Backing array; only the first {@link #size()} bytes are content
+     */
+    byte[] array() {
+        return buf;
+    }
+
+    int size() {
+        return count;
+    }
+
+    void wipe() {
+        Arrays.fill(buf, (byte) 0);
+        count = 0;
+    }
+}
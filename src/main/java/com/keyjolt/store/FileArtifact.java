@@ -0,0 +1,55 @@
+package com.keyjolt.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Artifact backed by a file on disk
+ */
+final class FileArtifact implements StoredArtifact {
+    private final String id;
+    private final Path path;
+
+    FileArtifact(String id, Path path) {
+        this.id = id;
+        this.path = path;
+    }
+
+    @Override
+    public String getId() { return id; }
+
+    @Override
+    public String getFilename() { return ArtifactStore.filenameOf(id); }
+
+    @Override
+    public long getSize() {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public InputStream openStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    /**
+     * Plain buffered copy. The servlet stream is not a file or socket
+     * channel, so transferTo could not avoid the copy anyway; the
+     * zero-copy path for files is the connector's sendfile.
+     */
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        Files.copy(path, out);
+    }
+
+    @Override
+    public Path getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,104 @@
+package com.keyjolt.store;
+
+import com.keyjolt.util.FileUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores generated key files in the temp directory managed by {@link FileUtils},
+ * which also takes care of secure deletion after the cleanup delay.
+ * Bundles are stored as small manifest files listing their artifact ids.
+ */
+@Component
+@ConditionalOnProperty(name = "app.artifact-store.type", havingValue = "file")
+public class FileArtifactStore implements ArtifactStore {
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final String BUNDLE_SUFFIX = ".bundle";
+
+    @Autowired
+    private FileUtils fileUtils;
+
+    @Override
+    public StoredArtifact store(String filename, byte[] content) throws IOException {
+        String id = ArtifactStore.newId(SECURE_RANDOM, filename);
+        File file = fileUtils.writeToTempFile(id, content);
+        return new FileArtifact(id, file.toPath());
+    }
+
+    @Override
+    public StoredArtifact store(String filename, ContentWriter writer) throws IOException {
+        String id = ArtifactStore.newId(SECURE_RANDOM, filename);
+        File file = fileUtils.createTempFile(id);
+        try (OutputStream out = new WipingBufferedOutputStream(
+                Files.newOutputStream(file.toPath(), StandardOpenOption.WRITE))) {
+            writer.writeTo(out);
+        } catch (IOException | RuntimeException e) {
+            try {
+                fileUtils.secureDelete(file);
+            } catch (IOException deleteFailure) {
+                e.addSuppressed(deleteFailure);
+            }
+            throw e;
+        }
+        return new FileArtifact(id, file.toPath());
+    }
+
+    @Override
+    public StoredArtifact find(String id) {
+        if (id.endsWith(BUNDLE_SUFFIX)) {
+            return null;
+        }
+        Path base = Path.of(fileUtils.getTempDir()).toAbsolutePath().normalize();
+        Path path = base.resolve(id).normalize();
+        if (!path.startsWith(base) || !Files.isRegularFile(path)) {
+            return null;
+        }
+        return new FileArtifact(id, path);
+    }
+
+    @Override
+    public String storeBundle(List<StoredArtifact> artifacts) throws IOException {
+        StringBuilder manifest = new StringBuilder();
+        artifacts.forEach(artifact -> manifest.append(artifact.getId()).append('\n'));
+
+        String token = ArtifactStore.newToken(SECURE_RANDOM);
+        fileUtils.writeToTempFile(token + BUNDLE_SUFFIX, manifest.toString().getBytes(StandardCharsets.UTF_8));
+        return token;
+    }
+
+    @Override
+    public List<StoredArtifact> findBundle(String token) {
+        if (!TOKEN_PATTERN.matcher(token).matches()) {
+            return null;
+        }
+
+        List<String> ids;
+        try {
+            ids = Files.readAllLines(Path.of(fileUtils.getTempDir(), token + BUNDLE_SUFFIX), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+
+        List<StoredArtifact> artifacts = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            StoredArtifact artifact = id.isEmpty() ? null : find(id);
+            if (artifact != null) {
+                artifacts.add(artifact);
+            }
+        }
+        return artifacts.isEmpty() ? null : artifacts;
+    }
+}
@@ -0,0 +1,341 @@
+package com.keyjolt.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps generated key files in memory instead of writing them to disk.
+ *
+ * Artifacts expire after a fixed TTL and are zeroed when evicted. Because
+ * every artifact has the same TTL, insertion order is expiry order and the
+ * sweep only has to look at the head of a FIFO queue. The total number of
+ * stored bytes is capped; storing beyond the cap fails rather than evicting
+ * other users' keys early. With {@code app.artifact-store.off-heap=true} the
+ * content is copied into direct buffers outside the Java heap.
+ *
+ * An artifact evicted while a download is reading it is zeroed when the
+ * last reader finishes, so a download never sends half-wiped content. Its
+ * bytes count against the cap until then.
+ */
+@Component
+@ConditionalOnProperty(name = "app.artifact-store.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryArtifactStore implements ArtifactStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryArtifactStore.class);
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    @Value("${app.artifact-store.ttl:${app.key-cleanup-delay:300000}}")
+    private long ttl;
+
+    @Value("${app.artifact-store.max-bytes:16777216}")
+    private long maxBytes;
+
+    @Value("${app.artifact-store.off-heap:false}")
+    private boolean offHeap;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> expiryQueue = new ConcurrentLinkedQueue<>();
+    private final Map<String, Bundle> bundles = new ConcurrentHashMap<>();
+    private final Queue<Bundle> bundleExpiryQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    @Override
+    public StoredArtifact store(String filename, byte[] content) throws IOException {
+        return put(filename, content, content.length);
+    }
+
+    @Override
+    public StoredArtifact store(String filename, ContentWriter writer) throws IOException {
+        // The buffer cannot grow past the space left, so an oversized write fails early
+        ContentBuffer content = new ContentBuffer(INITIAL_BUFFER_SIZE, maxBytes - storedBytes.get());
+        try {
+            writer.writeTo(content);
+        } catch (IOException | RuntimeException e) {
+            content.wipe();
+            throw e;
+        }
+        return put(filename, content.array(), content.size());
+    }
+
+    /**
+     * Reserve space for and keep the first {@code length} bytes of content,
+     * taking ownership of the array. Heap content is trimmed to its exact
+     * length, so the quota counts every byte that stays on the heap.
+     */
+    private StoredArtifact put(String filename, byte[] content, int length) throws IOException {
+        long current;
+        do {
+            current = storedBytes.get();
+            if (current + length > maxBytes) {
+                Arrays.fill(content, (byte) 0);
+                throw new ArtifactStoreFullException("Artifact store is full");
+            }
+        } while (!storedBytes.compareAndSet(current, current + length));
+
+        ByteBuffer buffer;
+        if (offHeap) {
+            buffer = ByteBuffer.allocateDirect(length);
+            buffer.put(content, 0, length).flip();
+            Arrays.fill(content, (byte) 0);
+        } else if (content.length != length) {
+            buffer = ByteBuffer.wrap(Arrays.copyOf(content, length));
+            Arrays.fill(content, (byte) 0);
+        } else {
+            buffer = ByteBuffer.wrap(content);
+        }
+
+        Entry entry = new Entry(ArtifactStore.newId(SECURE_RANDOM, filename), filename, buffer,
+            System.currentTimeMillis() + ttl, storedBytes);
+        entries.put(entry.id, entry);
+        expiryQueue.add(entry);
+        logger.debug("Artifact stored in memory: {} ({} bytes, expires in {}ms)", filename, length, ttl);
+        return entry;
+    }
+
+    @Override
+    public StoredArtifact find(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry;
+    }
+
+    @Override
+    public String storeBundle(List<StoredArtifact> artifacts) {
+        List<String> ids = new ArrayList<>(artifacts.size());
+        artifacts.forEach(artifact -> ids.add(artifact.getId()));
+
+        Bundle bundle = new Bundle(ArtifactStore.newToken(SECURE_RANDOM), List.copyOf(ids),
+            System.currentTimeMillis() + ttl);
+        bundles.put(bundle.token, bundle);
+        bundleExpiryQueue.add(bundle);
+        return bundle.token;
+    }
+
+    @Override
+    public List<StoredArtifact> findBundle(String token) {
+        Bundle bundle = bundles.get(token);
+        if (bundle == null || bundle.expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+
+        List<StoredArtifact> artifacts = new ArrayList<>(bundle.artifactIds.size());
+        for (String id : bundle.artifactIds) {
+            StoredArtifact artifact = find(id);
+            if (artifact != null) {
+                artifacts.add(artifact);
+            }
+        }
+        return artifacts.isEmpty() ? null : artifacts;
+    }
+
+    /**
+     * Total bytes currently held by the store
+     */
+    public long getStoredBytes() {
+        return storedBytes.get();
+    }
+
+    /**
+     * Evict and zero every artifact whose TTL has passed
+     */
+    @Scheduled(fixedRate = 1000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        Entry head;
+        while ((head = expiryQueue.peek()) != null && head.expiresAt <= now) {
+            if (expiryQueue.remove(head)) {
+                evict(head);
+            }
+        }
+
+        Bundle bundle;
+        while ((bundle = bundleExpiryQueue.peek()) != null && bundle.expiresAt <= now) {
+            if (bundleExpiryQueue.remove(bundle)) {
+                bundles.remove(bundle.token);
+            }
+        }
+    }
+
+    private void evict(Entry entry) {
+        entries.remove(entry.id);
+        entry.wipe();
+        logger.debug("Artifact evicted from memory: {}", entry.filename);
+    }
+
+    @PreDestroy
+    public void clear() {
+        Entry entry;
+        while ((entry = expiryQueue.poll()) != null) {
+            evict(entry);
+        }
+        bundles.clear();
+        bundleExpiryQueue.clear();
+    }
+
+    /**
+     * In-memory artifact backed by a heap or direct byte buffer. Readers
+     * register before touching the buffer; wiping waits for the last one
+     * and only then gives the bytes back to the store's quota.
+     */
+    private static final class Entry implements StoredArtifact {
+        private final String id;
+        private final String filename;
+        private final ByteBuffer buffer;
+        private final long size;
+        private final long expiresAt;
+        private final AtomicLong quota;
+        private int readers;
+        private boolean evicted;
+
+        Entry(String id, String filename, ByteBuffer buffer, long expiresAt, AtomicLong quota) {
+            this.id = id;
+            this.filename = filename;
+            this.buffer = buffer;
+            this.size = buffer.remaining();
+            this.expiresAt = expiresAt;
+            this.quota = quota;
+        }
+
+        @Override
+        public String getId() { return id; }
+
+        @Override
+        public String getFilename() { return filename; }
+
+        @Override
+        public long getSize() { return size; }
+
+        @Override
+        public InputStream openStream() throws IOException {
+            acquire();
+            return new BufferInputStream(buffer.asReadOnlyBuffer(), this);
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            if (!buffer.hasArray()) {
+                StoredArtifact.super.writeTo(out);
+                return;
+            }
+            acquire();
+            try {
+                // Heap buffer: hand the backing array straight to the stream
+                out.write(buffer.array(), buffer.arrayOffset(), (int) size);
+            } finally {
+                release();
+            }
+        }
+
+        private synchronized void acquire() throws IOException {
+            if (evicted) {
+                throw new IOException("Artifact expired: " + filename);
+            }
+            readers++;
+        }
+
+        private synchronized void release() {
+            if (--readers == 0 && evicted) {
+                zero();
+            }
+        }
+
+        /**
+         * Zero the content now, or when the last reader releases it
+         */
+        synchronized void wipe() {
+            evicted = true;
+            if (readers == 0) {
+                zero();
+            }
+        }
+
+        private void zero() {
+            ByteBuffer view = buffer.duplicate();
+            view.clear();
+            while (view.hasRemaining()) {
+                view.put((byte) 0);
+            }
+            quota.addAndGet(-size);
+        }
+    }
+
+    /**
+     * Group of artifact ids produced by one generation
+     */
+    private static final class Bundle {
+        private final String token;
+        private final List<String> artifactIds;
+        private final long expiresAt;
+
+        Bundle(String token, List<String> artifactIds, long expiresAt) {
+            this.token = token;
+            this.artifactIds = artifactIds;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Input stream over a private view of an artifact buffer; closing it
+     * releases the artifact for wiping
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer view;
+        private final Entry entry;
+        private boolean closed;
+
+        BufferInputStream(ByteBuffer view, Entry entry) {
+            this.view = view;
+            this.entry = entry;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                entry.release();
+            }
+        }
+
+        @Override
+        public int read() {
+            return view.hasRemaining() ? view.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!view.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, view.remaining());
+            view.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return view.remaining();
+        }
+    }
+}
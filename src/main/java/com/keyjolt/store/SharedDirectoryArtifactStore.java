@@ -0,0 +1,220 @@
+package com.keyjolt.store;
+
+import com.keyjolt.util.FileUtils;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores generated key files in a directory shared by every instance behind
+ * the load balancer, so a download succeeds whichever instance serves it.
+ *
+ * Files are written under a hidden temporary name and renamed into place,
+ * so other instances never see a partial file. Expiry is decided from the
+ * file's modification time: lookups ignore expired files, and every
+ * instance sweeps the directory, claiming an expired file by renaming it
+ * before wiping it so two instances never wipe the same file. Files left
+ * behind by an instance that died are swept by the others.
+ */
+@Component
+@ConditionalOnProperty(name = "app.artifact-store.type", havingValue = "shared")
+public class SharedDirectoryArtifactStore implements ArtifactStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedDirectoryArtifactStore.class);
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final String BUNDLE_SUFFIX = ".bundle";
+    private static final String WRITING_PREFIX = ".writing-";
+    private static final String SWEEPING_PREFIX = ".sweeping-";
+
+    @Value("${app.cluster.shared-dir:${java.io.tmpdir}/keyjolt-shared}")
+    private String sharedDir;
+
+    @Value("${app.artifact-store.ttl:${app.key-cleanup-delay:300000}}")
+    private long ttl;
+
+    @Autowired
+    private FileUtils fileUtils;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Path.of(sharedDir, "artifacts").toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        logger.info("Shared artifact directory ready: {}", root);
+    }
+
+    @Override
+    public StoredArtifact store(String filename, byte[] content) throws IOException {
+        return store(filename, out -> out.write(content));
+    }
+
+    @Override
+    public StoredArtifact store(String filename, ContentWriter writer) throws IOException {
+        String id = ArtifactStore.newId(SECURE_RANDOM, filename);
+        return new FileArtifact(id, publish(id, writer));
+    }
+
+    @Override
+    public StoredArtifact find(String id) {
+        if (id.endsWith(BUNDLE_SUFFIX) || id.startsWith(".")) {
+            return null;
+        }
+        Path path = root.resolve(id).normalize();
+        if (!path.startsWith(root) || !isLive(path)) {
+            return null;
+        }
+        return new FileArtifact(id, path);
+    }
+
+    @Override
+    public String storeBundle(List<StoredArtifact> artifacts) throws IOException {
+        StringBuilder manifest = new StringBuilder();
+        artifacts.forEach(artifact -> manifest.append(artifact.getId()).append('\n'));
+        byte[] content = manifest.toString().getBytes(StandardCharsets.UTF_8);
+
+        String token = ArtifactStore.newToken(SECURE_RANDOM);
+        publish(token + BUNDLE_SUFFIX, out -> out.write(content));
+        return token;
+    }
+
+    @Override
+    public List<StoredArtifact> findBundle(String token) {
+        if (!TOKEN_PATTERN.matcher(token).matches()) {
+            return null;
+        }
+
+        Path manifest = root.resolve(token + BUNDLE_SUFFIX);
+        List<String> ids;
+        try {
+            if (!isLive(manifest)) {
+                return null;
+            }
+            ids = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+
+        List<StoredArtifact> artifacts = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            StoredArtifact artifact = id.isEmpty() ? null : find(id);
+            if (artifact != null) {
+                artifacts.add(artifact);
+            }
+        }
+        return artifacts.isEmpty() ? null : artifacts;
+    }
+
+    /**
+     * Claim and securely delete every expired file, including half-written
+     * files and claims abandoned by an instance that stopped mid-sweep
+     */
+    @Scheduled(fixedDelayString = "${app.cluster.sweep-interval:5000}")
+    public void sweepExpired() {
+        long cutoff = System.currentTimeMillis() - ttl;
+        List<File> claimed = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+            for (Path path : files) {
+                Path claim = claimIfExpired(path, cutoff);
+                if (claim != null) {
+                    claimed.add(claim.toFile());
+                }
+                // Delete as we go, so a large backlog is never claimed all at once
+                if (claimed.size() == FileUtils.DELETE_BATCH_SIZE) {
+                    deleteClaimed(claimed);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to sweep shared artifact directory {}: {}", root, e.getMessage());
+        }
+        deleteClaimed(claimed);
+    }
+
+    private void deleteClaimed(List<File> claimed) {
+        if (!claimed.isEmpty()) {
+            int deleted = fileUtils.secureDeleteAll(claimed);
+            logger.debug("Swept {} expired shared artifacts", deleted);
+            claimed.clear();
+        }
+    }
+
+    Path getRoot() {
+        return root;
+    }
+
+    private Path claimIfExpired(Path path, long cutoff) {
+        try {
+            if (!Files.isRegularFile(path) || Files.getLastModifiedTime(path).toMillis() > cutoff) {
+                return null;
+            }
+            Path claim = root.resolve(SWEEPING_PREFIX + ArtifactStore.newToken(SECURE_RANDOM));
+            Files.move(path, claim, StandardCopyOption.ATOMIC_MOVE);
+            // A fresh time marks the claim as live; it only expires again if this instance dies mid-sweep
+            Files.setLastModifiedTime(claim, FileTime.fromMillis(System.currentTimeMillis()));
+            return claim;
+        } catch (NoSuchFileException e) {
+            // Another instance claimed it first
+            return null;
+        } catch (IOException e) {
+            logger.warn("Failed to claim expired shared artifact {}: {}", path.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isLive(Path path) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            return Files.isRegularFile(path) && modified.toMillis() + ttl > System.currentTimeMillis();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Write under a hidden name, then rename into place in one step
+     */
+    private Path publish(String name, ContentWriter writer) throws IOException {
+        Path target = root.resolve(name);
+        Path writing = root.resolve(WRITING_PREFIX + ArtifactStore.newToken(SECURE_RANDOM));
+        try {
+            try (OutputStream out = new WipingBufferedOutputStream(Files.newOutputStream(writing,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+                writer.writeTo(out);
+            }
+            try {
+                return Files.move(writing, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                throw new IOException("Shared directory " + root + " does not support atomic renames", e);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                fileUtils.secureDelete(writing.toFile());
+            } catch (IOException deleteFailure) {
+                e.addSuppressed(deleteFailure);
+            }
+            throw e;
+        }
+    }
+}
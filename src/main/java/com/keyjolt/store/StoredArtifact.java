@@ -0,0 +1,43 @@
+package com.keyjolt.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * A generated key file held by an {@link ArtifactStore}
+ */
+public interface StoredArtifact {
+
+    /**
+     * Download id: a random token followed by the original filename
+     */
+    String getId();
+
+    /**
+     * Original filename offered to the user on download
+     */
+    String getFilename();
+
+    long getSize();
+
+    InputStream openStream() throws IOException;
+
+    /**
+     * Write the whole content to the given stream, avoiding intermediate
+     * copies where the backing storage allows it
+     */
+    default void writeTo(OutputStream out) throws IOException {
+        try (InputStream in = openStream()) {
+            in.transferTo(out);
+        }
+    }
+
+    /**
+     * File backing this artifact, or null if it is not stored on disk
+     */
+    default Path getPath() {
+        return null;
+    }
+}
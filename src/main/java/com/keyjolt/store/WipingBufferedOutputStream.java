@@ -0,0 +1,26 @@
+package com.keyjolt.store;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Buffered file sink that zeroes its buffer once closed, so encoded key
+ * material does not outlive the write
+ */
+final class WipingBufferedOutputStream extends BufferedOutputStream {
+
+    WipingBufferedOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            Arrays.fill(buf, (byte) 0);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.keyjolt.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel that batches items expiring in the same tick.
+ *
+ * Scheduling is an O(1) append to the bucket of the item's deadline tick.
+ * A single ticker thread drains one bucket per tick, splits the expired
+ * items into at most {@code workers} batches and hands them to a bounded
+ * worker pool. Items whose deadline lies more than one wheel revolution
+ * ahead simply stay in their bucket until a later pass.
+ */
+public class ExpiryWheel<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiryWheel.class);
+
+    private final long tickMillis;
+    private final Queue<Entry<T>>[] buckets;
+    private final Consumer<List<T>> expiryAction;
+    private final int workers;
+    private final ScheduledExecutorService ticker;
+    private final ThreadPoolExecutor workerPool;
+    private final long startMillis = System.currentTimeMillis();
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private volatile long currentTick;
+
+    public ExpiryWheel(String name, long tickMillis, int wheelSize, int workers, Consumer<List<T>> expiryAction) {
+        this(name, tickMillis, wheelSize, workers, ThreadFactories.platform(name + "-worker", false), expiryAction);
+    }
+
+    /**
+     * @param workerThreads factory for the worker pool; the ticker is always a platform thread
+     */
+    @SuppressWarnings("unchecked")
+    public ExpiryWheel(String name, long tickMillis, int wheelSize, int workers, ThreadFactory workerThreads,
+                       Consumer<List<T>> expiryAction) {
+        this.tickMillis = tickMillis;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.expiryAction = expiryAction;
+        this.workers = Math.max(1, workers);
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name + "-ticker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.workerPool = new ThreadPoolExecutor(this.workers, this.workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(this.workers * 4),
+            workerThreads,
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedule an item to expire after the given delay
+     */
+    public void schedule(T item, long delayMillis) {
+        long deadline = System.currentTimeMillis() + delayMillis;
+        // Never target a bucket the ticker may already have drained
+        long deadlineTick = Math.max(tickOf(deadline), currentTick + 1);
+        buckets[(int) (deadlineTick % buckets.length)].add(new Entry<>(item, deadline, deadlineTick));
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Number of items scheduled but not yet handed to a worker
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Delay between the earliest deadline of the most recently expired tick
+     * and the moment its batches were dispatched
+     */
+    public long getLastLagMillis() {
+        return lastLagMillis.get();
+    }
+
+    private long tickOf(long timeMillis) {
+        return (timeMillis - startMillis + tickMillis - 1) / tickMillis;
+    }
+
+    /**
+     * Drain every bucket up to the current time. Normally this is one
+     * bucket, but it catches up if the ticker thread fell behind.
+     */
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            long targetTick = (now - startMillis) / tickMillis;
+            while (currentTick <= targetTick) {
+                drain(currentTick, now);
+                currentTick++;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Expiry wheel tick failed", e);
+        }
+    }
+
+    private void drain(long tick, long now) {
+        Queue<Entry<T>> bucket = buckets[(int) (tick % buckets.length)];
+        List<Entry<T>> expired = new ArrayList<>();
+        int size = bucket.size();
+        for (int i = 0; i < size; i++) {
+            Entry<T> entry = bucket.poll();
+            if (entry == null) {
+                break;
+            }
+            if (entry.deadlineTick <= tick) {
+                expired.add(entry);
+            } else {
+                bucket.add(entry);
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        pending.addAndGet(-expired.size());
+        long oldestDeadline = expired.get(0).deadline;
+        for (Entry<T> entry : expired) {
+            oldestDeadline = Math.min(oldestDeadline, entry.deadline);
+        }
+        lastLagMillis.set(Math.max(0, now - oldestDeadline));
+        logger.debug("Expiring {} items (lag {}ms)", expired.size(), lastLagMillis.get());
+
+        int batches = Math.min(workers, expired.size());
+        int batchSize = (expired.size() + batches - 1) / batches;
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            List<T> batch = new ArrayList<>(batchSize);
+            for (Entry<T> entry : expired.subList(from, Math.min(from + batchSize, expired.size()))) {
+                batch.add(entry.item);
+            }
+            workerPool.execute(() -> {
+                try {
+                    expiryAction.accept(batch);
+                } catch (RuntimeException e) {
+                    logger.error("Expiry action failed for batch of {} items", batch.size(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stop ticking and wait briefly for in-flight batches
+     */
+    public void shutdown() {
+        ticker.shutdown();
+        workerPool.shutdown();
+        try {
+            if (!workerPool.awaitTermination(5, TimeUnit.SECONDS)) {
+                workerPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workerPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long deadline;
+        private final long deadlineTick;
+
+        Entry(T item, long deadline, long deadlineTick) {
+            this.item = item;
+            this.deadline = deadline;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
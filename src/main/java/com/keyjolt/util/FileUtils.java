@@ -1,5 +1,7 @@
 package com.keyjolt.util;
 
+import com.keyjolt.random.RandomnessProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
@@ -7,12 +9,16 @@ import org.slf4j.LoggerFactory;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
+import org.bouncycastle.crypto.StreamCipher;
+
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
-import java.security.SecureRandom;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Utility class for secure file handling and cleanup
@@ -21,15 +27,33 @@ import java.util.concurrent.TimeUnit;
 public class FileUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(FileUtils.class);
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final int MAX_OVERWRITE_BUFFER = 64 * 1024;
+
+    /**
+     * Most files {@link #secureDeleteAll} holds open at once
+     */
+    public static final int DELETE_BATCH_SIZE = 64;
     
+    @Autowired
+    private RandomnessProvider randomness;
+
     @Value("${app.temp-dir:${java.io.tmpdir}/keyjolt}")
     private String tempDir;
     
     @Value("${app.key-cleanup-delay:300000}")
     private long cleanupDelay; // 5 minutes default
     
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    @Value("${app.cleanup.tick-millis:1000}")
+    private long tickMillis;
+
+    @Value("${app.cleanup.workers:2}")
+    private int cleanupWorkers;
+
+    // Deletion workers mostly wait on fsync, so they may run on virtual threads
+    @Value("${app.threads.virtual:${spring.threads.virtual.enabled:false}}")
+    private boolean virtualThreads;
+
+    private ExpiryWheel<File> expiryWheel;
     
     @PostConstruct
     public void initTempDirectory() {
@@ -42,10 +66,11 @@ public class FileUtils {
         } catch (IOException e) {
             throw new RuntimeException("Failed to create temp directory: " + tempDir, e);
         }
-    }
 
-    public File writeToTempFile(String filename, String content) throws IOException {
-        return writeToTempFile(filename, content.getBytes("UTF-8"));
+        // One wheel revolution covers the cleanup delay, so entries are normally drained on the first pass
+        int wheelSize = (int) Math.max(2, cleanupDelay / tickMillis + 1);
+        expiryWheel = new ExpiryWheel<>("file-cleanup", tickMillis, wheelSize, cleanupWorkers,
+            ThreadFactories.forMode("file-cleanup-worker", false, virtualThreads), this::deleteExpired);
     }
 
     public File writeToTempFile(String filename, byte[] content) throws IOException {
@@ -53,10 +78,27 @@ public class FileUtils {
         Files.write(filePath, content);
 
         File file = filePath.toFile();
-        String absPath = filePath.toAbsolutePath().toString();
-        logger.info("File written: {} (scheduled deletion in {}ms)", absPath, cleanupDelay);
+        if (logger.isDebugEnabled()) {
+            logger.debug("File written: {} (scheduled deletion in {}ms)", filePath.toAbsolutePath(), cleanupDelay);
+        }
+
+        scheduleFileDeletion(file);
+        return file;
+    }
+
+    /**
+     * Create an empty temp file for the caller to stream into. Deletion is
+     * scheduled up front, so a file abandoned half-written is still wiped.
+     */
+    public File createTempFile(String filename) throws IOException {
+        Path filePath = Files.createFile(Paths.get(tempDir, filename));
+
+        File file = filePath.toFile();
+        if (logger.isDebugEnabled()) {
+            logger.debug("File created: {} (scheduled deletion in {}ms)", filePath.toAbsolutePath(), cleanupDelay);
+        }
 
-        scheduleFileDeletion(file, absPath);
+        scheduleFileDeletion(file);
         return file;
     }
     
@@ -64,21 +106,15 @@ public class FileUtils {
     /**
      * Schedule file deletion after delay
      */
-    private void scheduleFileDeletion(File file, String originalPathForLogging) {
-        scheduler.schedule(() -> {
-            try {
-                if (file.exists()) {
-                    logger.info("Attempting to securely delete file: {}", originalPathForLogging);
-                    // Overwrite file content before deletion for security
-                    secureDelete(file);
-                    logger.info("Successfully deleted file: {}", originalPathForLogging);
-                } else {
-                    logger.warn("File scheduled for deletion no longer exists: {}", originalPathForLogging);
-                }
-            } catch (Exception e) {
-                logger.error("Failed to delete file: {} - {}", originalPathForLogging, e.getMessage(), e);
-            }
-        }, cleanupDelay, TimeUnit.MILLISECONDS);
+    private void scheduleFileDeletion(File file) {
+        expiryWheel.schedule(file, cleanupDelay);
+    }
+
+    /**
+     * Securely delete one batch of files that expired in the same tick
+     */
+    private void deleteExpired(List<File> files) {
+        secureDeleteAll(files);
     }
     
     /**
@@ -89,20 +125,10 @@ public class FileUtils {
             return;
         }
         
-        long length = file.length();
-        
-        // Overwrite with random data
-        try (RandomAccessFile raf = new RandomAccessFile(file, "rws")) {
-            byte[] data = new byte[1024];
-            
-            for (long pos = 0; pos < length; pos += data.length) {
-                SECURE_RANDOM.nextBytes(data);
-                raf.seek(pos);
-                int writeLength = (int) Math.min(data.length, length - pos);
-                raf.write(data, 0, writeLength);
-            }
-            
-            raf.getFD().sync(); // Force write to disk
+        // Overwrite with a keystream and sync once
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            overwrite(channel, randomness.fastStream());
+            channel.force(false);
         }
         
         // Delete the file
@@ -110,6 +136,103 @@ public class FileUtils {
             throw new IOException("Failed to delete file: " + file.getAbsolutePath());
         }
     }
+
+    /**
+     * Securely delete a group of files in batches of {@link #DELETE_BATCH_SIZE}:
+     * every file of a batch is overwritten first and the channels are then
+     * forced back to back, so the device sees one burst of syncs instead of
+     * interleaved write/sync pairs, while a large backlog never holds more
+     * than a batch of descriptors. Failures are logged per file and do not
+     * stop the rest of the group.
+     *
+     * @return number of files deleted
+     */
+    public int secureDeleteAll(List<File> files) {
+        StreamCipher keystream = randomness.fastStream();
+        int deleted = 0;
+        for (int from = 0; from < files.size(); from += DELETE_BATCH_SIZE) {
+            deleted += secureDeleteBatch(files.subList(from, Math.min(files.size(), from + DELETE_BATCH_SIZE)),
+                keystream);
+        }
+        return deleted;
+    }
+
+    private int secureDeleteBatch(List<File> files, StreamCipher keystream) {
+        List<File> overwritten = new ArrayList<>(files.size());
+        List<FileChannel> channels = new ArrayList<>(files.size());
+
+        try {
+            for (File file : files) {
+                if (!file.exists()) {
+                    logger.warn("File scheduled for deletion no longer exists: {}", file.getAbsolutePath());
+                    continue;
+                }
+                FileChannel channel = null;
+                try {
+                    channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+                    overwrite(channel, keystream);
+                    channels.add(channel);
+                    overwritten.add(file);
+                } catch (IOException e) {
+                    closeQuietly(channel);
+                    logger.error("Failed to overwrite file: {} - {}", file.getAbsolutePath(), e.getMessage(), e);
+                }
+            }
+
+            for (int i = 0; i < channels.size(); i++) {
+                try {
+                    channels.get(i).force(false);
+                } catch (IOException e) {
+                    logger.error("Failed to sync file: {} - {}", overwritten.get(i).getAbsolutePath(), e.getMessage(), e);
+                }
+            }
+        } finally {
+            channels.forEach(this::closeQuietly);
+        }
+
+        int deleted = 0;
+        for (File file : overwritten) {
+            if (file.delete()) {
+                deleted++;
+                logger.debug("Successfully deleted file: {}", file);
+            } else {
+                logger.error("Failed to delete file: {}", file.getAbsolutePath());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Overwrite the whole channel with keystream bytes using a single
+     * buffer sized to the file (capped at 64 KB)
+     */
+    private void overwrite(FileChannel channel, StreamCipher keystream) throws IOException {
+        long length = channel.size();
+        byte[] data = new byte[(int) Math.min(Math.max(length, 1), MAX_OVERWRITE_BUFFER)];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+
+        long pos = 0;
+        while (pos < length) {
+            int chunk = (int) Math.min(data.length, length - pos);
+            Arrays.fill(data, 0, chunk, (byte) 0);
+            keystream.processBytes(data, 0, chunk, data, 0);
+            buffer.clear().limit(chunk);
+            while (buffer.hasRemaining()) {
+                pos += channel.write(buffer, pos);
+            }
+        }
+    }
+
+    private void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close {}", closeable, e);
+        }
+    }
     
     /**
      * Get file size
@@ -118,6 +241,20 @@ public class FileUtils {
         return file.exists() ? file.length() : 0;
     }
     
+    /**
+     * Number of files waiting for scheduled deletion
+     */
+    public int getPendingDeletions() {
+        return expiryWheel.getPendingCount();
+    }
+
+    /**
+     * How late the most recent batch of deletions was dispatched, in milliseconds
+     */
+    public long getDeletionLagMillis() {
+        return expiryWheel.getLastLagMillis();
+    }
+    
     /**
      * Get the configured temporary directory path
      */
@@ -132,15 +269,11 @@ public class FileUtils {
         try {
             Path tempPath = Paths.get(tempDir);
             if (Files.exists(tempPath)) {
-                Files.walk(tempPath)
-                    .filter(Files::isRegularFile)
-                    .forEach(path -> {
-                        try {
-                            secureDelete(path.toFile());
-                        } catch (IOException e) {
-                            logger.error("Failed to delete file: {} - {}", path, e.getMessage(), e);
-                        }
-                    });
+                List<File> files = new ArrayList<>();
+                try (Stream<Path> paths = Files.walk(tempPath)) {
+                    paths.filter(Files::isRegularFile).forEach(path -> files.add(path.toFile()));
+                }
+                secureDeleteAll(files);
             }
         } catch (IOException e) {
             logger.error("Failed to cleanup temp directory: {}", e.getMessage(), e);
@@ -153,14 +286,6 @@ public class FileUtils {
     @PreDestroy
     public void shutdown() {
         logger.info("Shutting down FileUtils scheduler");
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+        expiryWheel.shutdown();
     }
 }
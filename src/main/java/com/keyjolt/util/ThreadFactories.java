@@ -0,0 +1,93 @@
+package com.keyjolt.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the application's own executors.
+ *
+ * Virtual threads are created through reflection so the code still compiles
+ * and runs on Java 17; on a runtime without them the platform factory is
+ * used instead. Only executors whose tasks block on I/O or on other pools
+ * should ask for virtual threads. CPU-bound work such as RSA generation
+ * belongs on a bounded platform pool, where it cannot pin every carrier.
+ */
+public final class ThreadFactories {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadFactories.class);
+
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+    private static final Method IS_VIRTUAL = findMethod(Thread.class, "isVirtual");
+
+    private ThreadFactories() {}
+
+    /**
+     * Whether this runtime can create virtual threads (Java 21 or later)
+     */
+    public static boolean virtualThreadsSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Whether the calling thread is a virtual thread
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Platform threads named {@code <prefix>-1}, {@code <prefix>-2}, ...
+     */
+    public static ThreadFactory platform(String prefix, boolean daemon) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + threadCount.incrementAndGet());
+            t.setDaemon(daemon);
+            return t;
+        };
+    }
+
+    /**
+     * Virtual threads when requested and supported, platform threads otherwise.
+     * Virtual threads are always daemon threads.
+     */
+    public static ThreadFactory forMode(String prefix, boolean daemon, boolean virtual) {
+        if (!virtual) {
+            return platform(prefix, daemon);
+        }
+        if (!virtualThreadsSupported()) {
+            logger.warn("Virtual threads requested for {} but this runtime is Java {}; using platform threads",
+                prefix, Runtime.version().feature());
+            return platform(prefix, daemon);
+        }
+        try {
+            // Thread.ofVirtual().name(prefix + "-", 1).factory()
+            Object builder = OF_VIRTUAL.invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix + "-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Could not create virtual thread factory for {}; using platform threads", prefix, e);
+            return platform(prefix, daemon);
+        }
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
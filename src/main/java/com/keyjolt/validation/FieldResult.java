@@ -0,0 +1,30 @@
+package com.keyjolt.validation;
+
+/**
+ * Immutable outcome of validating one field. Results are shared constants,
+ * so validating a value allocates nothing.
+ */
+public final class FieldResult {
+
+    public static final FieldResult VALID = new FieldResult(true, "");
+
+    private final boolean valid;
+    private final String message;
+
+    private FieldResult(boolean valid, String message) {
+        this.valid = valid;
+        this.message = message;
+    }
+
+    static FieldResult invalid(String message) {
+        return new FieldResult(false, message);
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
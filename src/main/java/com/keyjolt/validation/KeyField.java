@@ -0,0 +1,36 @@
+package com.keyjolt.validation;
+
+/**
+ * Form fields that can be validated on their own, by request parameter name
+ */
+public enum KeyField {
+    NAME("name"),
+    EMAIL("email"),
+    KEY_EXPIRY("keyExpiry"),
+    KEY_TYPE("keyType"),
+    PASSWORD("password");
+
+    private static final KeyField[] VALUES = values();
+
+    private final String param;
+
+    KeyField(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    /**
+     * Look up a field by its request parameter name, returning null if unknown
+     */
+    public static KeyField fromParam(String param) {
+        for (KeyField field : VALUES) {
+            if (field.param.equals(param)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
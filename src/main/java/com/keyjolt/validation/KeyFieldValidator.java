@@ -0,0 +1,258 @@
+package com.keyjolt.validation;
+
+import com.keyjolt.model.KeyType;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Validation rules for the key request form, shared by bean validation on
+ * {@link com.keyjolt.model.KeyRequest} and the {@code /api/validate} endpoint.
+ *
+ * Rules are hand-written character scanners rather than regular
+ * expressions, and every outcome is a preallocated {@link FieldResult}, so
+ * validating a value neither compiles a pattern nor allocates. The rules
+ * are stateless static methods, so every caller applies the same ones.
+ */
+public final class KeyFieldValidator {
+
+    public static final int MAX_NAME_LENGTH = 50;
+    public static final int MAX_KEY_EXPIRY_DAYS = 3650;
+    public static final int MIN_PASSWORD_LENGTH = 8;
+
+    private static final FieldResult NAME_REQUIRED = FieldResult.invalid("Name is required");
+    private static final FieldResult NAME_TOO_LONG =
+        FieldResult.invalid("Name must not exceed " + MAX_NAME_LENGTH + " characters");
+    private static final FieldResult NAME_CHARACTERS =
+        FieldResult.invalid("Name can only contain letters, numbers, and spaces");
+    private static final FieldResult EMAIL_REQUIRED = FieldResult.invalid("Email is required");
+    private static final FieldResult EMAIL_INVALID = FieldResult.invalid("Please enter a valid email address");
+    private static final FieldResult EXPIRY_REQUIRED = FieldResult.invalid("Key expiry is required");
+    private static final FieldResult EXPIRY_NOT_A_NUMBER = FieldResult.invalid("Key expiry must be a valid number");
+    private static final FieldResult EXPIRY_NEGATIVE = FieldResult.invalid("Key expiry must be 0 or positive");
+    private static final FieldResult EXPIRY_TOO_LONG =
+        FieldResult.invalid("Maximum key expiry is " + MAX_KEY_EXPIRY_DAYS + " days (10 years)");
+    private static final FieldResult KEY_TYPE_UNKNOWN =
+        FieldResult.invalid("Key type must be RSA, ED25519, ECDSA_P256 or ECDSA_P384");
+    private static final FieldResult PASSWORD_TOO_SHORT =
+        FieldResult.invalid("Password must be at least " + MIN_PASSWORD_LENGTH + " characters");
+
+    private KeyFieldValidator() {}
+
+    /**
+     * Validate a field by request parameter name. Unknown fields are valid.
+     */
+    public static FieldResult validate(String field, String value) {
+        KeyField keyField = KeyField.fromParam(field);
+        return keyField != null ? validate(keyField, value) : FieldResult.VALID;
+    }
+
+    /**
+     * Validate a field value given as a string or, for the key expiry, an integer
+     */
+    public static FieldResult validate(KeyField field, Object value) {
+        switch (field) {
+            case NAME:
+                return validateName((String) value);
+            case EMAIL:
+                return validateEmail((String) value);
+            case KEY_EXPIRY:
+                return value instanceof Integer days ? validateKeyExpiry(days) : validateKeyExpiry((String) value);
+            case KEY_TYPE:
+                return validateKeyType((String) value);
+            case PASSWORD:
+                return validatePassword((String) value);
+            default:
+                return FieldResult.VALID;
+        }
+    }
+
+    /**
+     * Validate several fields in one call, keyed by request parameter name.
+     * Unknown fields are left out of the result.
+     */
+    public static Map<String, FieldResult> validateAll(Map<String, String> fields) {
+        Map<String, FieldResult> results = new LinkedHashMap<>();
+        fields.forEach((param, value) -> {
+            KeyField field = KeyField.fromParam(param);
+            if (field != null) {
+                results.put(field.getParam(), validate(field, value));
+            }
+        });
+        return Collections.unmodifiableMap(results);
+    }
+
+    public static FieldResult validateName(String value) {
+        if (isBlank(value)) {
+            return NAME_REQUIRED;
+        }
+        if (value.length() > MAX_NAME_LENGTH) {
+            return NAME_TOO_LONG;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!isAsciiAlphanumeric(c) && !isRegexWhitespace(c)) {
+                return NAME_CHARACTERS;
+            }
+        }
+        return FieldResult.VALID;
+    }
+
+    /**
+     * Local part of letters, digits and {@code + _ . -}, then a domain of
+     * letters, digits, dots and hyphens ending in a dot and at least two letters
+     */
+    public static FieldResult validateEmail(String value) {
+        if (isBlank(value)) {
+            return EMAIL_REQUIRED;
+        }
+        int at = value.indexOf('@');
+        if (at < 1) {
+            return EMAIL_INVALID;
+        }
+        for (int i = 0; i < at; i++) {
+            char c = value.charAt(i);
+            if (!isAsciiAlphanumeric(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                return EMAIL_INVALID;
+            }
+        }
+
+        int lastDot = -1;
+        for (int i = at + 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiAlphanumeric(c) && c != '-') {
+                return EMAIL_INVALID;
+            }
+        }
+        // At least one domain character before the last dot, two or more letters after it
+        if (lastDot <= at + 1 || value.length() - lastDot - 1 < 2) {
+            return EMAIL_INVALID;
+        }
+        for (int i = lastDot + 1; i < value.length(); i++) {
+            if (!isAsciiLetter(value.charAt(i))) {
+                return EMAIL_INVALID;
+            }
+        }
+        return FieldResult.VALID;
+    }
+
+    public static FieldResult validateKeyExpiry(String value) {
+        if (value == null || value.isEmpty()) {
+            return EXPIRY_NOT_A_NUMBER;
+        }
+        int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+        if (start == value.length()) {
+            return EXPIRY_NOT_A_NUMBER;
+        }
+        // Parse by hand; anything beyond the maximum is rejected without overflowing
+        long days = 0;
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return EXPIRY_NOT_A_NUMBER;
+            }
+            if (days <= MAX_KEY_EXPIRY_DAYS) {
+                days = days * 10 + (c - '0');
+            }
+        }
+        if (value.charAt(0) == '-' && days > 0) {
+            return EXPIRY_NEGATIVE;
+        }
+        return days > MAX_KEY_EXPIRY_DAYS ? EXPIRY_TOO_LONG : FieldResult.VALID;
+    }
+
+    public static FieldResult validateKeyExpiry(Integer days) {
+        if (days == null) {
+            return EXPIRY_REQUIRED;
+        }
+        if (days < 0) {
+            return EXPIRY_NEGATIVE;
+        }
+        return days > MAX_KEY_EXPIRY_DAYS ? EXPIRY_TOO_LONG : FieldResult.VALID;
+    }
+
+    /**
+     * A missing key type is valid and means RSA
+     */
+    public static FieldResult validateKeyType(String value) {
+        return value == null || KeyType.fromName(value) != null ? FieldResult.VALID : KEY_TYPE_UNKNOWN;
+    }
+
+    /**
+     * The password is optional, but must be long enough when given
+     */
+    public static FieldResult validatePassword(String value) {
+        return value == null || value.isEmpty() || value.length() >= MIN_PASSWORD_LENGTH
+            ? FieldResult.VALID
+            : PASSWORD_TOO_SHORT;
+    }
+
+    /**
+     * Replace everything but ASCII letters and digits with underscores
+     */
+    public static String sanitizeName(String value) {
+        return sanitize(value, false);
+    }
+
+    /**
+     * Replace everything but ASCII letters, digits, {@code @} and {@code .}
+     * with underscores
+     */
+    public static String sanitizeEmail(String value) {
+        return sanitize(value, true);
+    }
+
+    /**
+     * Single pass that returns the input itself when nothing needs replacing
+     */
+    private static String sanitize(String value, boolean email) {
+        if (value == null) {
+            return "";
+        }
+        char[] sanitized = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (isAsciiAlphanumeric(c) || (email && (c == '@' || c == '.'))) {
+                continue;
+            }
+            if (sanitized == null) {
+                sanitized = value.toCharArray();
+            }
+            sanitized[i] = '_';
+        }
+        return sanitized == null ? value : new String(sanitized);
+    }
+
+    /**
+     * Blank as {@code String.trim().isEmpty()} sees it: only chars up to U+0020
+     */
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiAlphanumeric(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * The characters matched by {@code \s} in a Java regex
+     */
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
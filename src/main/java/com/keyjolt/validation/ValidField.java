@@ -0,0 +1,29 @@
+package com.keyjolt.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Validates a request field with the same rules as {@code /api/validate}.
+ * The violation message is the one {@link KeyFieldValidator} reports.
+ */
+@Documented
+@Constraint(validatedBy = ValidFieldConstraintValidator.class)
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidField {
+
+    KeyField value();
+
+    String message() default "Invalid value";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,29 @@
+package com.keyjolt.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Bean validation adapter for {@link KeyFieldValidator}
+ */
+public class ValidFieldConstraintValidator implements ConstraintValidator<ValidField, Object> {
+
+    private KeyField field;
+
+    @Override
+    public void initialize(ValidField annotation) {
+        field = annotation.value();
+    }
+
+    @Override
+    public boolean isValid(Object value, ConstraintValidatorContext context) {
+        FieldResult result = KeyFieldValidator.validate(field, value);
+        if (result.isValid()) {
+            return true;
+        }
+        // Messages are fixed strings without EL or parameters
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(result.getMessage()).addConstraintViolation();
+        return false;
+    }
+}
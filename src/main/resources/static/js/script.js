@@ -1,4 +1,34 @@
 // KeyJolt Frontend JavaScript
+
+// Mirrors KeyFieldValidator on the server; each rule returns an error message or ''
+const FIELD_RULES = {
+    name(value) {
+        if (!value || value.trim() === '') return 'Name is required';
+        if (value.length > 50) return 'Name must not exceed 50 characters';
+        if (!/^[a-zA-Z0-9\s]+$/.test(value)) return 'Name can only contain letters, numbers, and spaces';
+        return '';
+    },
+    email(value) {
+        if (!value || value.trim() === '') return 'Email is required';
+        if (!/^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\.[A-Za-z]{2,})$/.test(value)) return 'Please enter a valid email address';
+        return '';
+    },
+    keyExpiry(value) {
+        if (!/^[+-]?\d+$/.test(value)) return 'Key expiry must be a valid number';
+        const days = parseInt(value, 10);
+        if (days < 0) return 'Key expiry must be 0 or positive';
+        if (days > 3650) return 'Maximum key expiry is 3650 days (10 years)';
+        return '';
+    },
+    password(value) {
+        if (value && value.length < 8) return 'Password must be at least 8 characters';
+        return '';
+    }
+};
+
+// How long the form must be idle before locally valid fields are confirmed by the server
+const SERVER_VALIDATION_DELAY = 800;
+
 class KeyJoltApp {
     constructor() {
         this.form = document.getElementById('keyGenerationForm');
@@ -22,7 +52,9 @@ class KeyJoltApp {
         this.securityModalCloseBtn = this.securityModal ? this.securityModal.querySelector('.close-button') : null;
         this.privacyModalCloseBtn = this.privacyModal ? this.privacyModal.querySelector('.close-button') : null;
         
-        this.validationTimeouts = {};
+        this.serverValidationTimeout = null;
+        this.pendingServerFields = new Set();
+        this.serverValidated = {};
         this.isGenerating = false;
         
         this.init();
@@ -109,19 +141,24 @@ class KeyJoltApp {
         // Form submission
         this.form.addEventListener('submit', (e) => this.handleFormSubmit(e));
         
-        // Real-time validation
+        // Real-time validation: local on every keystroke, server confirmation when leaving a field
         const inputs = ['name', 'email', 'keyExpiry'];
         inputs.forEach(field => {
             const input = document.getElementById(field);
             if (input) {
-                input.addEventListener('input', () => this.validateField(field, input.value));
-                input.addEventListener('blur', () => this.validateField(field, input.value));
+                input.addEventListener('input', () => this.validateField(field, input.value, false));
+                input.addEventListener('blur', () => this.validateField(field, input.value, true));
             }
         });
 
         const passwordInput = document.getElementById('password');
         if (passwordInput) {
-            passwordInput.addEventListener('blur', () => this.validatePasswordField(passwordInput));
+            passwordInput.addEventListener('blur', () => this.validateField('password', passwordInput.value, false));
+        }
+
+        const keyTypeSelect = document.getElementById('keyType');
+        if (keyTypeSelect) {
+            keyTypeSelect.addEventListener('change', () => this.updateKeyTypeFields());
         }
         
         // Prevent form submission while generating
@@ -178,32 +215,80 @@ class KeyJoltApp {
         if (encryptionSelect && !encryptionSelect.value) {
             encryptionSelect.value = '4096';
         }
+        this.updateKeyTypeFields();
+    }
+
+    isRsaSelected() {
+        const keyTypeSelect = document.getElementById('keyType');
+        return !keyTypeSelect || keyTypeSelect.value === 'RSA';
+    }
+
+    // Bit strength only applies to RSA keys
+    updateKeyTypeFields() {
+        const strengthGroup = document.getElementById('encryptionStrengthGroup');
+        if (strengthGroup) {
+            strengthGroup.style.display = this.isRsaSelected() ? '' : 'none';
+        }
     }
     
-    async validateField(field, value) {
-        // Clear previous timeout
-        if (this.validationTimeouts[field]) {
-            clearTimeout(this.validationTimeouts[field]);
+    /**
+     * Check a field against the local rules. Locally valid values are queued
+     * for one debounced batch request to the server, which stays the
+     * authority; values the server has already accepted are not sent again.
+     */
+    validateField(field, value, confirmWithServer) {
+        const message = FIELD_RULES[field](value);
+        this.updateFieldValidation(field, message === '', message);
+
+        if (message !== '') {
+            this.pendingServerFields.delete(field);
+            return;
         }
-        
-        // Debounce validation
-        this.validationTimeouts[field] = setTimeout(async () => {
-            try {
-                const response = await fetch('/api/validate', {
-                    method: 'POST',
-                    headers: {
-                        'Content-Type': 'application/x-www-form-urlencoded',
-                    },
-                    body: `field=${encodeURIComponent(field)}&value=${encodeURIComponent(value)}`
-                });
-                
-                const result = await response.json();
+        if (confirmWithServer && this.serverValidated[field] !== value) {
+            this.pendingServerFields.add(field);
+            this.scheduleServerValidation();
+        }
+    }
+
+    scheduleServerValidation() {
+        if (this.serverValidationTimeout) {
+            clearTimeout(this.serverValidationTimeout);
+        }
+        this.serverValidationTimeout = setTimeout(() => this.validateWithServer(), SERVER_VALIDATION_DELAY);
+    }
+
+    async validateWithServer() {
+        this.serverValidationTimeout = null;
+        if (this.pendingServerFields.size === 0) return;
+
+        const fields = {};
+        this.pendingServerFields.forEach(field => {
+            fields[field] = document.getElementById(field).value;
+        });
+        this.pendingServerFields.clear();
+
+        try {
+            const response = await fetch('/api/validate/batch', {
+                method: 'POST',
+                headers: {
+                    'Content-Type': 'application/json',
+                },
+                body: JSON.stringify(fields)
+            });
+            if (!response.ok) return;
+
+            const results = await response.json();
+            Object.entries(results).forEach(([field, result]) => {
+                // Ignore answers for values the user has changed since
+                if (document.getElementById(field).value !== fields[field]) return;
+                if (result.valid) {
+                    this.serverValidated[field] = fields[field];
+                }
                 this.updateFieldValidation(field, result.valid, result.message);
-                
-            } catch (error) {
-                console.error('Validation error:', error);
-            }
-        }, 300);
+            });
+        } catch (error) {
+            console.error('Validation error:', error);
+        }
     }
     
     updateFieldValidation(field, isValid, message) {
@@ -227,15 +312,6 @@ class KeyJoltApp {
         }
     }
     
-    validatePasswordField(input) {
-        const value = input.value;
-        if (value && value.length > 0 && value.length < 8) {
-            this.updateFieldValidation('password', false, 'Password must be at least 8 characters');
-        } else {
-            this.updateFieldValidation('password', true, '');
-        }
-    }
-
     async handleFormSubmit(e) {
         e.preventDefault();
         
@@ -275,7 +351,9 @@ class KeyJoltApp {
     }
     
     validateForm() {
-        const requiredFields = ['name', 'email', 'encryptionStrength', 'keyExpiry'];
+        const requiredFields = this.isRsaSelected()
+            ? ['name', 'email', 'encryptionStrength', 'keyExpiry']
+            : ['name', 'email', 'keyExpiry'];
         let isValid = true;
         
         requiredFields.forEach(field => {
@@ -286,37 +364,25 @@ class KeyJoltApp {
             }
         });
         
-        // Additional validation
-        const email = document.getElementById('email').value;
-        if (email && !this.isValidEmail(email)) {
-            this.updateFieldValidation('email', false, 'Please enter a valid email address');
-            isValid = false;
-        }
-        
-        const keyExpiry = parseInt(document.getElementById('keyExpiry').value);
-        if (isNaN(keyExpiry) || keyExpiry < 0 || keyExpiry > 3650) {
-            this.updateFieldValidation('keyExpiry', false, 'Key expiry must be between 0 and 3650 days');
-            isValid = false;
-        }
-
-        const password = document.getElementById('password') ? document.getElementById('password').value : '';
-        if (password.length > 0 && password.length < 8) {
-            this.updateFieldValidation('password', false, 'Password must be at least 8 characters');
-            isValid = false;
-        }
+        // Same rules as live validation
+        Object.keys(FIELD_RULES).forEach(field => {
+            const input = document.getElementById(field);
+            if (!input || !input.value.trim() && field !== 'password') return;
+            const message = FIELD_RULES[field](input.value);
+            if (message) {
+                this.updateFieldValidation(field, false, message);
+                isValid = false;
+            }
+        });
         
         return isValid;
     }
     
-    isValidEmail(email) {
-        const emailRegex = /^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\.[A-Za-z]{2,})$/;
-        return emailRegex.test(email);
-    }
-    
     collectFormData() {
         return {
             name: document.getElementById('name').value.trim(),
             email: document.getElementById('email').value.trim(),
+            keyType: document.getElementById('keyType') ? document.getElementById('keyType').value : 'RSA',
             encryptionStrength: parseInt(document.getElementById('encryptionStrength').value),
             keyExpiry: parseInt(document.getElementById('keyExpiry').value),
             generateSshKey: document.getElementById('generateSshKey').checked,
@@ -326,7 +392,7 @@ class KeyJoltApp {
     }
     
     async generateKeys(formData) {
-        const response = await fetch('/api/generate', {
+        const response = await fetch('/api/jobs', {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json',
@@ -336,7 +402,11 @@ class KeyJoltApp {
         });
 
         if (response.status === 429) {
-            return { success: false, error: 'Rate limit exceeded. Please wait before generating more keys.' };
+            const retryAfter = parseInt(response.headers.get('Retry-After'), 10);
+            const wait = retryAfter > 0
+                ? ` Try again in ${retryAfter < 60 ? retryAfter + ' seconds' : Math.ceil(retryAfter / 60) + ' minutes'}.`
+                : '';
+            return { success: false, error: 'Rate limit exceeded. Please wait before generating more keys.' + wait };
         }
 
         if (!response.ok) {
@@ -347,13 +417,77 @@ class KeyJoltApp {
             }
         }
 
-        return await response.json();
+        const job = await response.json();
+        const status = typeof EventSource !== 'undefined'
+            ? await this.streamJob(job.jobId)
+            : await this.pollJob(job.jobId);
+
+        return status.result || { success: false, error: 'Key generation failed' };
+    }
+
+    // Follow job progress over Server-Sent Events, falling back to polling on error
+    streamJob(jobId) {
+        return new Promise((resolve) => {
+            const source = new EventSource(`/api/jobs/${encodeURIComponent(jobId)}/events`);
+            let finished = false;
+
+            source.addEventListener('stage', (e) => {
+                this.showStage(JSON.parse(e.data).stage);
+            });
+
+            source.addEventListener('complete', (e) => {
+                finished = true;
+                source.close();
+                resolve(JSON.parse(e.data));
+            });
+
+            source.onerror = () => {
+                if (finished) return;
+                finished = true;
+                source.close();
+                resolve(this.pollJob(jobId));
+            };
+        });
+    }
+
+    async pollJob(jobId) {
+        while (true) {
+            const response = await fetch(`/api/jobs/${encodeURIComponent(jobId)}`, {
+                headers: { 'Accept': 'application/json' }
+            });
+            if (!response.ok) {
+                return { done: true, result: { success: false, error: 'Key generation job was lost. Please try again.' } };
+            }
+
+            const status = await response.json();
+            if (status.done) {
+                return status;
+            }
+            this.showStage(status.stage);
+            await new Promise(r => setTimeout(r, 1000));
+        }
+    }
+
+    showStage(stage) {
+        const labels = {
+            'QUEUED': 'Waiting in queue...',
+            'MASTER_KEY': 'Generating master key...',
+            'SUBKEY': 'Generating encryption subkey...',
+            'PROTECTING': 'Protecting with passphrase...',
+            'ARMORING': 'Armoring keys...',
+            'SSH': 'Generating SSH key...'
+        };
+        const text = this.generateBtn.querySelector('.btn-text');
+        if (text && labels[stage]) {
+            text.textContent = labels[stage];
+        }
     }
     
     startGeneration() {
         this.isGenerating = true;
         this.generateBtn.disabled = true;
         this.generateBtn.classList.add('loading');
+        this.showStage('QUEUED');
         
         // Disable form inputs
         const inputs = this.form.querySelectorAll('input, select, button');
@@ -364,6 +498,11 @@ class KeyJoltApp {
         this.isGenerating = false;
         this.generateBtn.disabled = false;
         this.generateBtn.classList.remove('loading');
+
+        const text = this.generateBtn.querySelector('.btn-text');
+        if (text) {
+            text.textContent = 'Generate Keys';
+        }
         
         // Re-enable form inputs
         const inputs = this.form.querySelectorAll('input, select, button');
@@ -371,8 +510,10 @@ class KeyJoltApp {
     }
     
     showSuccess(response) {
-        this.successMessage.textContent = response.message;
-        this.renderDownloadLinks(response.files);
+        this.successMessage.textContent = response.algorithm
+            ? `${response.message} Algorithm: ${response.algorithm}.`
+            : response.message;
+        this.renderDownloadLinks(response.files, response.bundleUrl);
         this.resultsSection.style.display = 'block';
         this.resultsSection.classList.add('fade-in');
         this.resultsSection.scrollIntoView({ behavior: 'smooth' });
@@ -392,7 +533,7 @@ class KeyJoltApp {
         this.errorSection.classList.remove('fade-in');
     }
     
-    renderDownloadLinks(files) {
+    renderDownloadLinks(files, bundleUrl) {
         this.downloadGrid.innerHTML = '';
         
         const fileTypeInfo = {
@@ -452,6 +593,35 @@ class KeyJoltApp {
             });
         });
         
+        // One ZIP with every file saves a round trip per key
+        if (bundleUrl) {
+            const totalSize = files.reduce((sum, file) => sum + file.size, 0);
+            const bundleItem = document.createElement('div');
+            bundleItem.className = 'download-item';
+            bundleItem.innerHTML = `
+                <div class="download-header">
+                    <i data-feather="archive" class="download-icon"></i>
+                    <h3 class="download-title">All Keys (ZIP)</h3>
+                </div>
+                <div class="download-info">
+                    Every generated file in a single download<br>
+                    <strong>File:</strong> keyjolt-keys.zip<br>
+                    <strong>Size:</strong> about ${this.formatFileSize(totalSize)}
+                </div>
+                <a href="${bundleUrl}" class="download-link" data-filename="keyjolt-keys.zip">
+                    <i data-feather="download" class="download-link-icon"></i>
+                    Download All
+                </a>
+            `;
+
+            this.downloadGrid.appendChild(bundleItem);
+
+            bundleItem.querySelector('.download-link').addEventListener('click', (e) => {
+                e.preventDefault();
+                this.downloadFile(bundleUrl, 'keyjolt-keys.zip');
+            });
+        }
+        
         // Re-initialize Feather icons for new elements
         if (typeof feather !== 'undefined') {
             feather.replace();
@@ -560,6 +730,7 @@ window.resetForm = function() {
         if (encryptionSelect) {
             encryptionSelect.value = '4096';
         }
+        app.updateKeyTypeFields();
         
         // Scroll to top
         window.scrollTo({ top: 0, behavior: 'smooth' });
@@ -0,0 +1,114 @@
+package com.keyjolt.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keyjolt.logging.StageTimings;
+import com.keyjolt.ratelimit.ClientIpResolver;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLoggingFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RequestLoggingFilter filter = new RequestLoggingFilter();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger(RequestLoggingFilter.ACCESS_LOGGER);
+
+    @BeforeEach
+    void setUp() {
+        ClientIpResolver resolver = new ClientIpResolver();
+        ReflectionTestUtils.setField(resolver, "trustedProxy", false);
+        ReflectionTestUtils.setField(filter, "clientIpResolver", resolver);
+        appender.start();
+        accessLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(appender);
+    }
+
+    @Test
+    void logsOneJsonLineWithStageTimings() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/generate");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                StageTimings.record("master_key", 1_234_567);
+                StageTimings.record("armor", 5_000);
+                resp.setStatus(200);
+            }
+        }));
+
+        assertEquals(1, appender.list.size());
+        JsonNode line = objectMapper.readTree(appender.list.get(0).getFormattedMessage());
+        assertEquals("POST", line.get("method").asText());
+        assertEquals("/api/generate", line.get("path").asText());
+        assertEquals(200, line.get("status").asInt());
+        assertEquals("10.0.0.1", line.get("client").asText());
+        assertTrue(line.get("ms").isNumber());
+        assertEquals(1.234, line.get("stages").get("master_key").asDouble());
+        assertEquals(0.005, line.get("stages").get("armor").asDouble());
+    }
+
+    @Test
+    void escapesPathAndOmitsStagesWhenNoneRecorded() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/a\"b\\c");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        JsonNode line = objectMapper.readTree(appender.list.get(0).getFormattedMessage());
+        assertEquals("/a\"b\\c", line.get("path").asText());
+        assertFalse(line.has("stages"));
+    }
+
+    @Test
+    void redactsDownloadIdsAndTokens() throws Exception {
+        String id = "cc3c92ce0123456789abcdef01234567_test@example.com_Test_User_ssh_pub.key";
+        String token = "76e3e09b0123456789abcdef01234567";
+        String[][] cases = {
+            {"/download/" + id, "/download/{id}"},
+            {"/%64ownload/" + id, "/download/{id}"},
+            {"/download/bundle/" + token, "/download/bundle/{token}"},
+            {"/api/jobs/" + token, "/api/jobs/{jobId}"},
+            {"/api/jobs/" + token + "/events", "/api/jobs/{jobId}/events"},
+        };
+        for (String[] c : cases) {
+            filter.doFilter(new MockHttpServletRequest("GET", c[0]), new MockHttpServletResponse(),
+                new MockFilterChain());
+        }
+
+        for (int i = 0; i < cases.length; i++) {
+            String logged = appender.list.get(i).getFormattedMessage();
+            assertEquals(cases[i][1], objectMapper.readTree(logged).get("path").asText());
+            assertFalse(logged.contains("cc3c92ce") || logged.contains("76e3e09b") || logged.contains("example.com"),
+                logged);
+        }
+    }
+
+    @Test
+    void skipsStaticAssets() throws Exception {
+        for (String uri : new String[] {"/css/style.css", "/js/script.js", "/favicon.ico", "/site.webmanifest"}) {
+            filter.doFilter(new MockHttpServletRequest("GET", uri), new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        assertTrue(appender.list.isEmpty());
+    }
+}
@@ -1,7 +1,11 @@
 package com.keyjolt.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.keyjolt.metrics.GenerationMetrics;
 import com.keyjolt.model.KeyRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -9,7 +13,20 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -18,7 +35,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureMockMvc
 @TestPropertySource(properties = {
     "app.rate-limit.requests-per-hour=1000",
-    "app.rate-limit.burst-capacity=1000"
+    "app.rate-limit.burst-capacity=1000",
+    "app.rate-limit.batch.keys-per-hour=1000",
+    "app.rate-limit.batch.burst-capacity=1000",
+    "app.key-pool.depth=2"
 })
 class KeyControllerTest {
 
@@ -28,6 +48,9 @@ class KeyControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void indexPageReturns200() throws Exception {
         mockMvc.perform(get("/"))
@@ -62,6 +85,225 @@ class KeyControllerTest {
                 .andExpect(jsonPath("$.files.length()").value(4));
     }
 
+    @Test
+    void generateEd25519KeysWithSsh() throws Exception {
+        KeyRequest request = new KeyRequest("Test User", "test@example.com", null, 0, true, null);
+        request.setKeyType("ED25519");
+
+        String body = mockMvc.perform(post("/api/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.algorithm").value("Ed25519 / X25519"))
+                .andExpect(jsonPath("$.files.length()").value(4))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode sshPublic = objectMapper.readTree(body).get("files").get(2);
+        String content = mockMvc.perform(get(sshPublic.get("downloadUrl").asText()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(content.startsWith("ssh-ed25519 "));
+    }
+
+    @Test
+    void generateEcdsaKeysWithSsh() throws Exception {
+        KeyRequest request = new KeyRequest("Test User", "test@example.com", null, 30, true, "correct horse");
+        request.setKeyType("ECDSA_P384");
+
+        mockMvc.perform(post("/api/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.algorithm").value("ECDSA / ECDH P-384"))
+                .andExpect(jsonPath("$.files.length()").value(4));
+    }
+
+    @Test
+    void generateKeysRejectsUnknownKeyType() throws Exception {
+        KeyRequest request = new KeyRequest("Test User", "test@example.com", 4096, 30, false, null);
+        request.setKeyType("DSA");
+
+        mockMvc.perform(post("/api/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Key type must be RSA, ED25519, ECDSA_P256 or ECDSA_P384."));
+    }
+
+    @Test
+    void generateKeysWithModernProfile() throws Exception {
+        KeyRequest request = new KeyRequest("Test User", "test@example.com", null, 30, false, "correct horse");
+        request.setKeyType("ED25519");
+        request.setProfile("modern");
+
+        mockMvc.perform(post("/api/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+
+        Timer passphrase = meterRegistry.find(GenerationMetrics.PASSPHRASE_TIMER)
+            .tags("profile", "modern", "s2k", "iterated").timer();
+        assertNotNull(passphrase);
+        assertTrue(passphrase.count() >= 1);
+    }
+
+    @Test
+    void generateKeysRejectsUnknownProfile() throws Exception {
+        KeyRequest request = new KeyRequest("Test User", "test@example.com", null, 30, false, null);
+        request.setKeyType("ED25519");
+        request.setProfile("legacy");
+
+        mockMvc.perform(post("/api/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown keyring profile."));
+    }
+
+    @Test
+    void batchStreamsOneLinePerRequest() throws Exception {
+        List<KeyRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            KeyRequest request = new KeyRequest("Batch User " + i, "batch" + i + "@example.com", null, 0, i == 0, null);
+            request.setKeyType("ED25519");
+            requests.add(request);
+        }
+
+        MvcResult result = mockMvc.perform(post("/api/generate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andReturn();
+        // Curve keys can all finish before the handler returns, in which case nothing is async
+        if (result.getRequest().isAsyncStarted()) {
+            result.getAsyncResult(30_000);
+            result = mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andReturn();
+        }
+        String body = result.getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(3, lines.length);
+        Set<Integer> indexes = new HashSet<>();
+        for (String line : lines) {
+            JsonNode item = objectMapper.readTree(line);
+            indexes.add(item.get("index").asInt());
+            assertTrue(item.get("result").get("success").asBoolean());
+            assertEquals(item.get("index").asInt() == 0 ? 4 : 2, item.get("result").get("files").size());
+        }
+        assertEquals(Set.of(0, 1, 2), indexes);
+    }
+
+    @Test
+    void batchRejectsInvalidItem() throws Exception {
+        List<KeyRequest> requests = List.of(
+            new KeyRequest("Batch User", "batch@example.com", 2048, 0, false, null),
+            new KeyRequest("Batch User", "batch@example.com", 1024, 0, false, null));
+
+        mockMvc.perform(post("/api/generate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Request 1: Encryption strength must be 2048, 3072, or 4096."));
+    }
+
+    @Test
+    void batchRejectsOversizedBatch() throws Exception {
+        List<KeyRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 51; i++) {
+            requests.add(new KeyRequest("Batch User", "batch@example.com", 2048, 0, false, null));
+        }
+
+        mockMvc.perform(post("/api/generate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Batch must not contain more than 50 requests."));
+    }
+
+    @Test
+    void oversizedBatchIsRejectedBeforeTheRestIsRead() throws Exception {
+        String item = objectMapper.writeValueAsString(
+            new KeyRequest("Batch User", "batch@example.com", 2048, 0, false, null));
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 51; i++) {
+            body.append(item).append(',');
+        }
+        // Never reached: binding stops at the 51st item
+        body.append("not json");
+
+        mockMvc.perform(post("/api/generate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Batch must not contain more than 50 requests."));
+    }
+
+    @Test
+    void batchRejectsBodyThatIsNotAnArray() throws Exception {
+        mockMvc.perform(post("/api/generate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Batch User\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Batch must be a JSON array of requests."));
+    }
+
+    @Test
+    void generatedFileCanBeDownloaded() throws Exception {
+        KeyRequest request = new KeyRequest("Test User", "test@example.com", 2048, 0, false, null);
+
+        String body = mockMvc.perform(post("/api/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode file = objectMapper.readTree(body).get("files").get(0);
+        String content = mockMvc.perform(get(file.get("downloadUrl").asText()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"" + file.get("filename").asText() + "\""))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(content.startsWith("-----BEGIN PGP PUBLIC KEY BLOCK-----"));
+    }
+
+    @Test
+    void bundleDownloadContainsAllFiles() throws Exception {
+        KeyRequest request = new KeyRequest("Test User", "test@example.com", 2048, 0, true, null);
+
+        String body = mockMvc.perform(post("/api/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bundleUrl").isString())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode response = objectMapper.readTree(body);
+        byte[] zip = mockMvc.perform(get(response.get("bundleUrl").asText()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Set<String> entries = new HashSet<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.add(entry.getName());
+            }
+        }
+        Set<String> expected = new HashSet<>();
+        response.get("files").forEach(file -> expected.add(file.get("filename").asText()));
+        assertEquals(expected, entries);
+    }
+
+    @Test
+    void bundleDownloadReturns404ForUnknownToken() throws Exception {
+        mockMvc.perform(get("/download/bundle/0123456789abcdef0123456789abcdef"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void generateKeysRejectsMissingName() throws Exception {
         KeyRequest request = new KeyRequest(null, "test@example.com", 4096, 30, false, null);
@@ -74,6 +316,18 @@ class KeyControllerTest {
                 .andExpect(jsonPath("$.error").isString());
     }
 
+    @Test
+    void generationEndpointsReportRateLimitQuota() throws Exception {
+        KeyRequest request = new KeyRequest(null, "test@example.com", 4096, 30, false, null);
+
+        mockMvc.perform(post("/api/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("X-RateLimit-Limit", "1000"))
+                .andExpect(header().exists("X-RateLimit-Remaining"));
+    }
+
     @Test
     void generateKeysRejectsInvalidEncryptionStrength() throws Exception {
         KeyRequest request = new KeyRequest("Test User", "test@example.com", 1024, 30, false, null);
@@ -107,6 +361,50 @@ class KeyControllerTest {
                 .andExpect(jsonPath("$.success").value(true));
     }
 
+    @Test
+    void submitJobReturnsJobIdAndCompletes() throws Exception {
+        KeyRequest request = new KeyRequest("Test User", "test@example.com", 2048, 0, true, null);
+
+        String body = mockMvc.perform(post("/api/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.jobId").isString())
+                .andReturn().getResponse().getContentAsString();
+
+        String jobId = objectMapper.readTree(body).get("jobId").asText();
+        JsonNode status = objectMapper.readTree(body);
+        for (int i = 0; i < 100 && !status.get("done").asBoolean(); i++) {
+            Thread.sleep(100);
+            status = objectMapper.readTree(mockMvc.perform(get("/api/jobs/" + jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+        }
+
+        assertEquals("COMPLETED", status.get("stage").asText());
+        assertTrue(status.get("result").get("success").asBoolean());
+        assertEquals(4, status.get("result").get("files").size());
+    }
+
+    @Test
+    void submitJobRejectsInvalidRequest() throws Exception {
+        KeyRequest request = new KeyRequest("Test User", "test@example.com", 1024, 30, false, null);
+
+        mockMvc.perform(post("/api/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void getJobReturns404ForUnknownJob() throws Exception {
+        mockMvc.perform(get("/api/jobs/unknown"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Job not found."));
+    }
+
     @Test
     void validateFieldReturnsTrueForValidName() throws Exception {
         mockMvc.perform(post("/api/validate")
@@ -116,6 +414,21 @@ class KeyControllerTest {
                 .andExpect(jsonPath("$.valid").value(true));
     }
 
+    @Test
+    void validateFieldChecksKeyType() throws Exception {
+        mockMvc.perform(post("/api/validate")
+                        .param("field", "keyType")
+                        .param("value", "ECDSA_P256"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true));
+
+        mockMvc.perform(post("/api/validate")
+                        .param("field", "keyType")
+                        .param("value", "DSA"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(false));
+    }
+
     @Test
     void validateFieldReturnsFalseForEmptyName() throws Exception {
         mockMvc.perform(post("/api/validate")
@@ -136,6 +449,19 @@ class KeyControllerTest {
                 .andExpect(jsonPath("$.message").value("Password must be at least 8 characters"));
     }
 
+    @Test
+    void validateBatchReturnsResultPerKnownField() throws Exception {
+        mockMvc.perform(post("/api/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Jane Doe\",\"email\":\"jane@example\",\"keyExpiry\":\"4000\",\"other\":\"x\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name.valid").value(true))
+                .andExpect(jsonPath("$.email.valid").value(false))
+                .andExpect(jsonPath("$.email.message").value("Please enter a valid email address"))
+                .andExpect(jsonPath("$.keyExpiry.message").value("Maximum key expiry is 3650 days (10 years)"))
+                .andExpect(jsonPath("$.other").doesNotExist());
+    }
+
     @Test
     void validateFieldAcceptsEmptyPassword() throws Exception {
         mockMvc.perform(post("/api/validate")
@@ -163,4 +489,40 @@ class KeyControllerTest {
         mockMvc.perform(get("/admin/secret"))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    void generationRecordsStageTimersAndDownloadCounts() throws Exception {
+        KeyRequest request = new KeyRequest("Metrics User", "metrics@example.com", null, 0, true, null);
+        request.setKeyType("ECDSA_P256");
+
+        String body = mockMvc.perform(post("/api/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        for (String stage : List.of(GenerationMetrics.MASTER_KEY, GenerationMetrics.SUBKEY, GenerationMetrics.SSH_KEY,
+                GenerationMetrics.KEYRING_BUILD, GenerationMetrics.ARMOR, GenerationMetrics.SSH_ENCODE)) {
+            Timer timer = meterRegistry.find(GenerationMetrics.STAGE_TIMER)
+                .tags("stage", stage, "type", "ECDSA_P256", "strength", "none").timer();
+            assertNotNull(timer, stage);
+            assertTrue(timer.count() >= 1, stage);
+        }
+        assertNotNull(meterRegistry.find(GenerationMetrics.FIRST_GENERATION_GAUGE).timeGauge());
+
+        double hits = downloads("file", "hit");
+        double misses = downloads("file", "miss");
+        String downloadUrl = objectMapper.readTree(body).get("files").get(0).get("downloadUrl").asText();
+        mockMvc.perform(get(downloadUrl)).andExpect(status().isOk());
+        mockMvc.perform(get("/download/0123456789abcdef0123456789abcdef_missing.asc"))
+                .andExpect(status().isNotFound());
+
+        assertEquals(hits + 1, downloads("file", "hit"));
+        assertEquals(misses + 1, downloads("file", "miss"));
+    }
+
+    private double downloads(String kind, String result) {
+        var counter = meterRegistry.find(GenerationMetrics.DOWNLOAD_COUNTER).tags("kind", kind, "result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
 }
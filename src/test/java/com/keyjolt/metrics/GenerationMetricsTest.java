@@ -0,0 +1,55 @@
+package com.keyjolt.metrics;
+
+import com.keyjolt.model.KeyRequest;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GenerationMetrics metrics = new GenerationMetrics();
+
+    GenerationMetricsTest() {
+        ReflectionTestUtils.setField(metrics, "registry", registry);
+    }
+
+    private static KeyRequest request(String keyType, Integer strength) {
+        KeyRequest request = new KeyRequest();
+        request.setKeyType(keyType);
+        request.setEncryptionStrength(strength);
+        return request;
+    }
+
+    @Test
+    void stageTimersAreKeptPerTagCombination() {
+        KeyRequest rsa = request("rsa", 2048);
+        for (int i = 0; i < 3; i++) {
+            metrics.recordStage(GenerationMetrics.MASTER_KEY, rsa, System.nanoTime());
+        }
+        metrics.recordStage(GenerationMetrics.MASTER_KEY, request("rsa", 4096), System.nanoTime());
+        metrics.recordStage(GenerationMetrics.SUBKEY, rsa, System.nanoTime());
+
+        Timer timer = registry.get(GenerationMetrics.STAGE_TIMER)
+            .tags("stage", GenerationMetrics.MASTER_KEY, "type", "RSA", "strength", "2048").timer();
+        assertEquals(3, timer.count());
+        assertEquals(3, registry.find(GenerationMetrics.STAGE_TIMER).timers().size());
+    }
+
+    @Test
+    void passphraseTimersAreKeptPerProfileAndMode() {
+        KeyRequest rsa = request("rsa", 2048);
+        metrics.recordPassphraseProtection("default", "iterated", rsa, System.nanoTime());
+        metrics.recordPassphraseProtection("default", "iterated", rsa, System.nanoTime());
+        metrics.recordPassphraseProtection("modern", "argon2", rsa, System.nanoTime());
+
+        assertEquals(2, registry.get(GenerationMetrics.PASSPHRASE_TIMER)
+            .tags("profile", "default", "s2k", "iterated").timer().count());
+        assertEquals(2, registry.find(GenerationMetrics.PASSPHRASE_TIMER).timers().size());
+        assertEquals(3, registry.get(GenerationMetrics.STAGE_TIMER)
+            .tags("stage", GenerationMetrics.PASSPHRASE).timer().count());
+    }
+}
@@ -30,6 +30,28 @@ class KeyRequestTest {
         assertFalse(r.hasValidEncryptionStrength());
     }
 
+    @Test
+    void keyTypeDefaultsToRsa() {
+        KeyRequest r = new KeyRequest();
+        assertTrue(r.hasValidKeyType());
+        assertEquals(KeyType.RSA, r.resolveKeyType());
+    }
+
+    @Test
+    void curveKeyTypesAreRecognised() {
+        KeyRequest r = new KeyRequest();
+        r.setKeyType("ED25519");
+        assertTrue(r.hasValidKeyType());
+        assertEquals(KeyType.ED25519, r.resolveKeyType());
+    }
+
+    @Test
+    void unknownKeyTypeIsInvalid() {
+        KeyRequest r = new KeyRequest();
+        r.setKeyType("DSA");
+        assertFalse(r.hasValidKeyType());
+    }
+
     @Test
     void nullPasswordIsValid() {
         KeyRequest r = new KeyRequest();
@@ -0,0 +1,72 @@
+package com.keyjolt.random;
+
+import org.bouncycastle.crypto.StreamCipher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DrbgRandomnessProviderTest {
+
+    private final DrbgRandomnessProvider provider = new DrbgRandomnessProvider();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(provider, "stripes", 6);
+        provider.init();
+    }
+
+    @Test
+    void stripeCountIsRoundedUpToPowerOfTwo() {
+        assertEquals(8, provider.getStripeCount());
+    }
+
+    @Test
+    void threadKeepsItsGeneratorAndPoolThreadsSpreadAcrossStripes() throws Exception {
+        assertSame(provider.strong(), provider.strong());
+
+        Set<SecureRandom> used = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.execute(() -> used.add(provider.strong()));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(used.size() > 1, "pool threads should not share a single generator");
+    }
+
+    @Test
+    void outputStaysDistinctAcrossReseed() {
+        byte[] before = new byte[32];
+        byte[] after = new byte[32];
+        provider.strong().nextBytes(before);
+
+        provider.reseed();
+        provider.strong().nextBytes(after);
+
+        assertFalse(Arrays.equals(before, after));
+    }
+
+    @Test
+    void fastStreamsAreIndependentlyKeyed() {
+        StreamCipher first = provider.fastStream();
+        StreamCipher second = provider.fastStream();
+        byte[] a = new byte[64];
+        byte[] b = new byte[64];
+
+        first.processBytes(a, 0, a.length, a, 0);
+        second.processBytes(b, 0, b.length, b, 0);
+
+        assertFalse(Arrays.equals(a, b));
+        assertFalse(Arrays.equals(new byte[64], a));
+    }
+}
@@ -0,0 +1,83 @@
+package com.keyjolt.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private static final byte[] BODY = "{\"success\":false}".getBytes(StandardCharsets.UTF_8);
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ClientIpResolver resolver = new ClientIpResolver();
+        ReflectionTestUtils.setField(resolver, "trustedProxy", false);
+        filter = new RateLimitFilter(new StripedRateLimiter(10, 2, 64), resolver,
+            Set.of("/api/generate"), 10, BODY);
+    }
+
+    private MockHttpServletResponse post(String uri, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void allowedRequestsCarryQuotaHeaders() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = post("/api/generate", chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals("10", response.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("1", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+    }
+
+    @Test
+    void limitedRequestsAreRejectedBeforeTheChain() throws Exception {
+        post("/api/generate", new MockFilterChain());
+        post("/api/generate", new MockFilterChain());
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = post("/api/generate", chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(429, response.getStatus());
+        assertEquals("0", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertTrue(Long.parseLong(response.getHeader("Retry-After")) > 0);
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void encodedPathsShareTheQuota() throws Exception {
+        post("/api/generate", new MockFilterChain());
+        post("/api/%67enerate", new MockFilterChain());
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = post("/api/%67enerate;jsessionid=x", chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    void otherEndpointsAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = post("/api/validate", chain);
+            assertNotNull(chain.getRequest());
+            assertNull(response.getHeader(RateLimitFilter.LIMIT_HEADER));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.keyjolt.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private StripedRateLimiter limiter(int perHour, int burst) {
+        return new StripedRateLimiter(perHour, burst, 1024, 42L, clock::get);
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    void burstIsEnforcedAndRefills() {
+        StripedRateLimiter limiter = limiter(100, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1", 1));
+        }
+        long wait = limiter.tryAcquire("10.0.0.1", 1);
+        assertTrue(wait > 0 && wait <= 12_000, "wait was " + wait);
+
+        advance(wait);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 1));
+    }
+
+    @Test
+    void hourlyQuotaIsEnforcedAcrossBursts() {
+        StripedRateLimiter limiter = limiter(10, 5);
+
+        int granted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (limiter.tryAcquire("10.0.0.1", 1) == 0) {
+                granted++;
+            }
+            advance(1_000);
+        }
+        // 100 seconds: the full hourly quota plus nothing refilled yet (one permit per 6 minutes)
+        assertEquals(10, granted);
+
+        advance(TimeUnit.HOURS.toMillis(1));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 1));
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeQuota() {
+        StripedRateLimiter limiter = limiter(100, 2);
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 2));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("10.0.0.1", 1) > 0);
+        }
+        advance(30_000);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 1));
+    }
+
+    @Test
+    void clientsAreLimitedIndependently() {
+        StripedRateLimiter limiter = limiter(100, 1);
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 1));
+        assertTrue(limiter.tryAcquire("10.0.0.1", 1) > 0);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", 1));
+    }
+
+    @Test
+    void concurrentCallersNeverExceedBurst() throws InterruptedException {
+        StripedRateLimiter limiter = limiter(1000, 50);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    if (limiter.tryAcquire("10.0.0.1", 1) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(50, granted.get());
+    }
+
+    @Test
+    void slotCountIsRoundedUpToPowerOfTwo() {
+        assertEquals(1024, new StripedRateLimiter(10, 5, 1000).getSlotCount());
+        assertEquals(1024, new StripedRateLimiter(10, 5, 1024).getSlotCount());
+    }
+
+    @Test
+    void activeSlotsCountsClientsUntilTheirQuotaRefills() {
+        StripedRateLimiter limiter = limiter(10, 5);
+        assertEquals(0, limiter.activeSlots());
+
+        limiter.tryAcquire("10.0.0.1", 1);
+        limiter.tryAcquire("10.0.0.2", 1);
+        assertEquals(2, limiter.activeSlots());
+
+        advance(TimeUnit.HOURS.toMillis(1));
+        assertEquals(0, limiter.activeSlots());
+    }
+
+    @Test
+    void sharedFileHoldsOneQuotaForEveryInstance(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("ratelimit-generation.slots");
+        try (StripedRateLimiter nodeA = StripedRateLimiter.shared(100, 4, 1024, file);
+             StripedRateLimiter nodeB = StripedRateLimiter.shared(100, 4, 1024, file)) {
+            assertEquals(0, nodeA.tryAcquire("10.0.0.1", 1));
+            assertEquals(0, nodeB.tryAcquire("10.0.0.1", 1));
+            assertEquals(0, nodeA.tryAcquire("10.0.0.1", 1));
+            assertEquals(0, nodeB.tryAcquire("10.0.0.1", 1));
+
+            assertTrue(nodeA.tryAcquire("10.0.0.1", 1) > 0);
+            assertTrue(nodeB.tryAcquire("10.0.0.1", 1) > 0);
+            assertEquals(0, nodeB.tryAcquire("10.0.0.2", 1));
+            assertEquals(2, nodeA.activeSlots());
+        }
+
+        // Quota state outlives a restart
+        try (StripedRateLimiter restarted = StripedRateLimiter.shared(100, 4, 1024, file)) {
+            assertTrue(restarted.tryAcquire("10.0.0.1", 1) > 0);
+        }
+    }
+
+    @Test
+    void sharedFileIsConsistentUnderConcurrentInstances(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("ratelimit-batch.slots");
+        try (StripedRateLimiter nodeA = StripedRateLimiter.shared(1000, 50, 64, file);
+             StripedRateLimiter nodeB = StripedRateLimiter.shared(1000, 50, 64, file)) {
+            AtomicInteger granted = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(8);
+            for (int t = 0; t < 8; t++) {
+                StripedRateLimiter node = t % 2 == 0 ? nodeA : nodeB;
+                new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 20; i++) {
+                            if (node.tryAcquire("10.0.0.1", 1) == 0) {
+                                granted.incrementAndGet();
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            // A few permits may refill while the threads run
+            assertTrue(granted.get() >= 50 && granted.get() <= 52, "granted " + granted.get());
+        }
+    }
+
+    @Test
+    void sharedFileRejectsDifferentTableSize(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("ratelimit-generation.slots");
+        try (StripedRateLimiter ignored = StripedRateLimiter.shared(10, 5, 1024, file)) {
+            assertThrows(IllegalStateException.class, () -> StripedRateLimiter.shared(10, 5, 2048, file));
+        }
+    }
+}
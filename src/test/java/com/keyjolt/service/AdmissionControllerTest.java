@@ -0,0 +1,116 @@
+package com.keyjolt.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private AdmissionController controller(int maxConcurrent, int queueCapacity, long queueTimeout, boolean adaptive) {
+        AdmissionController controller = new AdmissionController();
+        ReflectionTestUtils.setField(controller, "maxConcurrent", maxConcurrent);
+        ReflectionTestUtils.setField(controller, "minConcurrent", 1);
+        ReflectionTestUtils.setField(controller, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(controller, "queueTimeout", queueTimeout);
+        ReflectionTestUtils.setField(controller, "adaptive", adaptive);
+        ReflectionTestUtils.setField(controller, "targetLatency", 1L);
+        ReflectionTestUtils.setField(controller, "backoffRatio", 0.5);
+        controller.init();
+        return controller;
+    }
+
+    /**
+     * Occupy one slot until the test releases it
+     */
+    private Future<Boolean> occupy(AdmissionController controller) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Boolean> future = executor.submit(() -> controller.call(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return future;
+    }
+
+    @Test
+    void requestsWithinLimitRunImmediately() throws Exception {
+        AdmissionController controller = controller(2, 0, 0, false);
+
+        assertEquals("done", controller.call(() -> "done"));
+        assertEquals(0, controller.getInFlight());
+    }
+
+    @Test
+    void fullQueueRejectsImmediately() throws Exception {
+        AdmissionController controller = controller(1, 0, 10_000, false);
+        occupy(controller);
+
+        long start = System.nanoTime();
+        ServiceOverloadedException e = assertThrows(ServiceOverloadedException.class,
+            () -> controller.call(() -> "never"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertEquals(1, controller.getRejectedCount());
+    }
+
+    @Test
+    void queuedRequestTimesOut() throws Exception {
+        AdmissionController controller = controller(1, 4, 100, false);
+        occupy(controller);
+
+        assertThrows(ServiceOverloadedException.class, () -> controller.call(() -> "never"));
+        assertEquals(0, controller.getWaiting());
+    }
+
+    @Test
+    void queuedRequestRunsWhenSlotFrees() throws Exception {
+        AdmissionController controller = controller(1, 4, 5_000, false);
+        Future<Boolean> running = occupy(controller);
+
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return controller.call(() -> "queued");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+        for (int i = 0; i < 200 && controller.getWaiting() == 0; i++) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, controller.getWaiting());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void adaptiveLimitBacksOffOnSlowGenerations() throws Exception {
+        AdmissionController controller = controller(8, 0, 0, true);
+
+        controller.call(() -> {
+            Thread.sleep(20);
+            return null;
+        });
+
+        assertEquals(4, controller.getLimit());
+    }
+}
@@ -0,0 +1,176 @@
+package com.keyjolt.service;
+
+import com.keyjolt.metrics.GenerationMetrics;
+import com.keyjolt.model.KeyRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyGenerationServiceTest {
+
+    private static final int STRENGTH = 2048;
+
+    private final FakeKeyPool pool = new FakeKeyPool();
+    private KeyGenerationService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    /**
+     * Pool that hands out placeholder key pairs and records where they were taken
+     */
+    static class FakeKeyPool extends RsaKeyPool {
+        final List<String> takenOn = new CopyOnWriteArrayList<>();
+        final List<AsymmetricCipherKeyPair> restored = new CopyOnWriteArrayList<>();
+        volatile IntFunction<AsymmetricCipherKeyPair> supplier = strength -> new AsymmetricCipherKeyPair(null, null);
+
+        @Override
+        public AsymmetricCipherKeyPair take(int strength) {
+            takenOn.add(Thread.currentThread().getName());
+            return supplier.apply(strength);
+        }
+
+        @Override
+        public void restore(int strength, AsymmetricCipherKeyPair keyPair) {
+            restored.add(keyPair);
+        }
+
+        long forked() {
+            return takenOn.stream().filter(name -> name.startsWith("keygen-")).count();
+        }
+    }
+
+    /**
+     * Stops generation once all key material is joined, so no key ring is built
+     */
+    static class Assembled extends RuntimeException {
+    }
+
+    private KeyGenerationService service(int threads, int perRequestParallelism) {
+        PgpKeyService pgpKeyService = new PgpKeyService() {
+            @Override
+            public PgpKeyPair generateKeyPair(KeyRequest request, AsymmetricCipherKeyPair masterKey,
+                                              AsymmetricCipherKeyPair encryptionKey,
+                                              GenerationProgressListener listener) {
+                throw new Assembled();
+            }
+        };
+        AdmissionController admissionController = new AdmissionController();
+        ReflectionTestUtils.setField(admissionController, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(admissionController, "minConcurrent", 1);
+        admissionController.init();
+        GenerationMetrics metrics = new GenerationMetrics();
+        ReflectionTestUtils.setField(metrics, "registry", new SimpleMeterRegistry());
+
+        KeyGenerationService service = new KeyGenerationService();
+        ReflectionTestUtils.setField(service, "rsaKeyPool", pool);
+        ReflectionTestUtils.setField(service, "pgpKeyService", pgpKeyService);
+        ReflectionTestUtils.setField(service, "admissionController", admissionController);
+        ReflectionTestUtils.setField(service, "metrics", metrics);
+        ReflectionTestUtils.setField(service, "parallelism", threads);
+        ReflectionTestUtils.setField(service, "perRequestParallelism", perRequestParallelism);
+        service.init();
+        return service;
+    }
+
+    private static KeyRequest rsaRequest(boolean ssh) {
+        KeyRequest request = new KeyRequest();
+        request.setEncryptionStrength(STRENGTH);
+        request.setGenerateSshKey(ssh);
+        return request;
+    }
+
+    @Test
+    void perRequestParallelismCapsForkedTasks() {
+        int[][] cases = {
+            // per-request-parallelism, ssh, expected forks
+            {1, 1, 0},
+            {2, 1, 1},
+            {3, 1, 2},
+            {8, 1, 2},
+            {3, 0, 1},
+            {0, 1, 0},
+        };
+        for (int[] c : cases) {
+            pool.takenOn.clear();
+            service = service(2, c[0]);
+
+            assertThrows(Assembled.class,
+                () -> service.generate(rsaRequest(c[1] == 1), GenerationProgressListener.NONE));
+
+            String label = "per-request-parallelism=" + c[0] + ", ssh=" + (c[1] == 1);
+            assertEquals(c[1] == 1 ? 3 : 2, pool.takenOn.size(), label);
+            assertEquals(c[2], pool.forked(), label);
+            service.shutdown();
+        }
+        service = null;
+    }
+
+    @Test
+    void failureInForkedTaskPropagates() {
+        IllegalStateException failure = new IllegalStateException("generation failed");
+        pool.supplier = strength -> {
+            if (Thread.currentThread().getName().startsWith("keygen-")) {
+                throw failure;
+            }
+            return new AsymmetricCipherKeyPair(null, null);
+        };
+        service = service(2, 2);
+
+        Exception thrown = assertThrows(Exception.class,
+            () -> service.generate(rsaRequest(false), GenerationProgressListener.NONE));
+
+        assertSame(failure, thrown);
+        assertEquals(1, pool.forked());
+    }
+
+    @Test
+    void failureCancelsForkedTasksAndReturnsTheirKeys() {
+        CountDownLatch forkStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("generation failed");
+        pool.supplier = strength -> {
+            try {
+                if (Thread.currentThread().getName().startsWith("keygen-")) {
+                    forkStarted.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return new AsymmetricCipherKeyPair(null, null);
+                }
+                // Fail the master key only once the subkey task is taking
+                forkStarted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw failure;
+        };
+        // One pool thread: the subkey task is taking, the SSH task is still queued
+        service = service(1, 3);
+        try {
+            Exception thrown = assertThrows(Exception.class,
+                () -> service.generate(rsaRequest(true), GenerationProgressListener.NONE));
+            assertSame(failure, thrown);
+        } finally {
+            release.countDown();
+        }
+        service.shutdown();
+        service = null;
+
+        // The running take hands its key back; the queued one never takes
+        assertEquals(1, pool.forked());
+        assertEquals(1, pool.restored.size());
+    }
+}
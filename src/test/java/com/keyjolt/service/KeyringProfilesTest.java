@@ -0,0 +1,168 @@
+package com.keyjolt.service;
+
+import com.keyjolt.config.KeyringProperties;
+import com.keyjolt.model.KeyType;
+import com.keyjolt.random.SystemRandomnessProvider;
+import org.bouncycastle.bcpg.HashAlgorithmTags;
+import org.bouncycastle.bcpg.SymmetricKeyAlgorithmTags;
+import org.bouncycastle.openpgp.PGPKeyRingGenerator;
+import org.bouncycastle.openpgp.PGPPublicKey;
+import org.bouncycastle.openpgp.PGPPublicKeyRing;
+import org.bouncycastle.openpgp.PGPSignature;
+import org.bouncycastle.openpgp.PGPSignatureSubpacketVector;
+import org.bouncycastle.openpgp.operator.bc.BcPGPContentVerifierBuilderProvider;
+import org.bouncycastle.openpgp.operator.bc.BcPGPKeyPair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyringProfilesTest {
+
+    private final KeyringProperties properties = new KeyringProperties();
+    private final KeyringProfiles profiles = new KeyringProfiles();
+    private final CurveKeyGenerator curveKeyGenerator = new CurveKeyGenerator();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(profiles, "properties", properties);
+        ReflectionTestUtils.setField(curveKeyGenerator, "randomness", new SystemRandomnessProvider());
+    }
+
+    @Test
+    void modernProfileLeavesOutLegacyAlgorithms() {
+        profiles.init();
+
+        PGPSignatureSubpacketVector subpackets = profiles.get(KeyringProfiles.MODERN, KeyType.ED25519)
+            .masterSubpackets(0);
+
+        int[] hashes = subpackets.getPreferredHashAlgorithms();
+        int[] ciphers = subpackets.getPreferredSymmetricAlgorithms();
+        assertArrayEquals(new int[] {HashAlgorithmTags.SHA512, HashAlgorithmTags.SHA384, HashAlgorithmTags.SHA256},
+            hashes);
+        assertFalse(Arrays.stream(ciphers).anyMatch(c ->
+            c == SymmetricKeyAlgorithmTags.CAST5 || c == SymmetricKeyAlgorithmTags.TRIPLE_DES));
+    }
+
+    @Test
+    void configuredProfileInheritsUnsetSettingsFromDefault() {
+        KeyringProperties.Profile modernOnly = new KeyringProperties.Profile();
+        modernOnly.setHashAlgorithms(List.of("SHA512", "sha-256"));
+        properties.getProfiles().put("modern-only", modernOnly);
+        properties.setDefaultProfile("modern-only");
+        profiles.init();
+
+        KeyringProfile profile = profiles.get(null, KeyType.RSA);
+        assertEquals("modern-only", profile.getName());
+        assertArrayEquals(new int[] {HashAlgorithmTags.SHA512, HashAlgorithmTags.SHA256},
+            profile.getPreferredHashAlgorithms());
+        assertArrayEquals(profiles.get(KeyringProfiles.DEFAULT, KeyType.RSA).getPreferredSymmetricAlgorithms(),
+            profile.getPreferredSymmetricAlgorithms());
+        assertTrue(profiles.contains(null));
+        assertTrue(profiles.contains(KeyringProfiles.DEFAULT));
+    }
+
+    @Test
+    void profilesCarryTheirOwnS2kCost() {
+        KeyringProperties.Profile hardened = new KeyringProperties.Profile();
+        hardened.setS2kMode("argon2");
+        hardened.setArgon2MemoryExponent(12);
+        properties.getProfiles().put("hardened", hardened);
+        profiles.init();
+
+        assertEquals(65536, profiles.get(KeyringProfiles.DEFAULT, KeyType.RSA).getProtection().getIterations());
+        assertEquals(8388608, profiles.get(KeyringProfiles.MODERN, KeyType.RSA).getProtection().getIterations());
+        SecretKeyProtection argon2 = profiles.get("hardened", KeyType.RSA).getProtection();
+        assertEquals(SecretKeyProtection.Mode.ARGON2, argon2.getMode());
+        assertEquals(12, argon2.getArgon2MemoryExponent());
+    }
+
+    @Test
+    void invalidConfigurationFailsAtStartup() {
+        KeyringProperties.Profile broken = new KeyringProperties.Profile();
+        broken.setSymmetricAlgorithms(List.of("AES256", "ROT13"));
+        properties.getProfiles().put("broken", broken);
+        assertThrows(IllegalArgumentException.class, profiles::init);
+
+        broken.setSymmetricAlgorithms(null);
+        broken.setS2kIterations(100L);
+        assertThrows(IllegalArgumentException.class, profiles::init);
+
+        properties.getProfiles().clear();
+        properties.setDefaultProfile("missing");
+        assertThrows(IllegalStateException.class, profiles::init);
+    }
+
+    @Test
+    void unknownProfileIsRejected() {
+        profiles.init();
+
+        assertFalse(profiles.contains("legacy"));
+        assertThrows(IllegalArgumentException.class, () -> profiles.get("legacy", KeyType.RSA));
+    }
+
+    @Test
+    void expiryVectorsAreCachedPerDay() {
+        profiles.init();
+        KeyringProfile profile = profiles.get(null, KeyType.ECDSA_P256);
+
+        assertSame(profile.masterSubpackets(365), profile.masterSubpackets(365));
+        assertEquals(365L * 24 * 60 * 60, profile.subkeySubpackets(365).getKeyExpirationTime());
+        assertEquals(0L, profile.masterSubpackets(0).getKeyExpirationTime());
+    }
+
+    @Test
+    void sharedProfileBuildsValidKeyRingsConcurrently() throws Exception {
+        profiles.init();
+        KeyringProfile profile = profiles.get(KeyringProfiles.MODERN, KeyType.ED25519);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<PGPPublicKeyRing>> rings = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                int n = i;
+                rings.add(executor.submit(() -> buildRing(profile, "User " + n + " <user" + n + "@example.com>")));
+            }
+            for (int i = 0; i < rings.size(); i++) {
+                PGPPublicKeyRing ring = rings.get(i).get();
+                PGPPublicKey master = ring.getPublicKey();
+                Iterator<PGPSignature> signatures = master.getSignaturesForID("User " + i + " <user" + i + "@example.com>");
+                PGPSignature certification = signatures.next();
+                certification.init(new BcPGPContentVerifierBuilderProvider(), master);
+                assertTrue(certification.verifyCertification("User " + i + " <user" + i + "@example.com>", master));
+                assertEquals(30L * 24 * 60 * 60, certification.getHashedSubPackets().getKeyExpirationTime());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private PGPPublicKeyRing buildRing(KeyringProfile profile, String userId) throws Exception {
+        Date now = new Date();
+        PGPKeyRingGenerator generator = new PGPKeyRingGenerator(
+            PGPSignature.POSITIVE_CERTIFICATION,
+            new BcPGPKeyPair(profile.getSigningAlgorithm(), curveKeyGenerator.generateSigningKey(KeyType.ED25519), now),
+            userId,
+            profile.newChecksumCalculator(),
+            profile.masterSubpackets(30),
+            null,
+            profile.getSignerBuilder(),
+            null);
+        generator.addSubKey(
+            new BcPGPKeyPair(profile.getEncryptionAlgorithm(), curveKeyGenerator.generateEncryptionKey(KeyType.ED25519), now),
+            profile.subkeySubpackets(30), null);
+        profile.protect(generator.generateSecretKeyRing(), "correct horse".toCharArray(),
+            new SystemRandomnessProvider().strong());
+        return generator.generatePublicKeyRing();
+    }
+}
@@ -0,0 +1,141 @@
+package com.keyjolt.service;
+
+import com.keyjolt.random.SystemRandomnessProvider;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.params.RSAKeyParameters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RsaKeyPoolTest {
+
+    private static final int STRENGTH = 1024;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private RsaKeyPool pool;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private RsaKeyPool pool(int depth, int lowWater) {
+        RsaKeyPool pool = new RsaKeyPool();
+        ReflectionTestUtils.setField(pool, "randomness", new SystemRandomnessProvider());
+        ReflectionTestUtils.setField(pool, "enabled", true);
+        ReflectionTestUtils.setField(pool, "depth", depth);
+        ReflectionTestUtils.setField(pool, "refillThreads", 1);
+        ReflectionTestUtils.setField(pool, "lowWater", lowWater);
+        pool.init(Set.of(STRENGTH));
+        return pool;
+    }
+
+    private static void awaitAvailable(RsaKeyPool pool, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (pool.available(STRENGTH) < count) {
+            assertTrue(System.nanoTime() < deadline, "pool did not fill to " + count);
+            Thread.sleep(10);
+        }
+    }
+
+    private static BigInteger modulus(AsymmetricCipherKeyPair keyPair) {
+        return ((RSAKeyParameters) keyPair.getPublic()).getModulus();
+    }
+
+    @Test
+    void concurrentTakesNeverShareAKeyPair() throws Exception {
+        pool = pool(4, 0);
+        awaitAvailable(pool, 4);
+
+        // More takers than pooled keys, so pooled and inline keys are mixed
+        int takers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AsymmetricCipherKeyPair>> futures = new ArrayList<>();
+        for (int i = 0; i < takers; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return pool.take(STRENGTH);
+            }));
+        }
+        start.countDown();
+
+        Set<AsymmetricCipherKeyPair> pairs = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<BigInteger> moduli = new HashSet<>();
+        for (Future<AsymmetricCipherKeyPair> future : futures) {
+            AsymmetricCipherKeyPair keyPair = future.get(60, TimeUnit.SECONDS);
+            assertEquals(STRENGTH, modulus(keyPair).bitLength());
+            pairs.add(keyPair);
+            moduli.add(modulus(keyPair));
+        }
+        assertEquals(takers, pairs.size());
+        assertEquals(takers, moduli.size());
+    }
+
+    @Test
+    void takingBelowLowWaterRefillsToDepth() throws Exception {
+        pool = pool(3, 1);
+        awaitAvailable(pool, 3);
+
+        pool.take(STRENGTH);
+        pool.take(STRENGTH);
+
+        awaitAvailable(pool, 3);
+        assertEquals(3, pool.available(STRENGTH));
+    }
+
+    @Test
+    void emptyQueueStillYieldsAKey() throws Exception {
+        pool = pool(2, 0);
+        awaitAvailable(pool, 2);
+        // Nothing is in flight once the queue is full; this stops refilling and drains it
+        pool.shutdown();
+        assertEquals(0, pool.available(STRENGTH));
+
+        AsymmetricCipherKeyPair keyPair = pool.take(STRENGTH);
+
+        assertNotNull(keyPair);
+        assertEquals(STRENGTH, modulus(keyPair).bitLength());
+    }
+
+    @Test
+    void restoredKeyIsHandedOutAgain() throws Exception {
+        // Low water 0: taking one of two keys does not start a refill
+        pool = pool(2, 0);
+        awaitAvailable(pool, 2);
+        AsymmetricCipherKeyPair keyPair = pool.take(STRENGTH);
+
+        pool.restore(STRENGTH, keyPair);
+
+        assertEquals(2, pool.available(STRENGTH));
+        assertNotSame(keyPair, pool.take(STRENGTH));
+        assertSame(keyPair, pool.take(STRENGTH));
+    }
+
+    @Test
+    void unpooledStrengthIsGeneratedInline() {
+        pool = pool(2, 0);
+
+        AsymmetricCipherKeyPair keyPair = pool.take(2048);
+
+        assertEquals(2048, modulus(keyPair).bitLength());
+        assertEquals(0, pool.available(2048));
+    }
+}
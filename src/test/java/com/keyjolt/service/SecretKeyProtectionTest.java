@@ -0,0 +1,126 @@
+package com.keyjolt.service;
+
+import com.keyjolt.model.KeyType;
+import com.keyjolt.random.SystemRandomnessProvider;
+import org.bouncycastle.bcpg.HashAlgorithmTags;
+import org.bouncycastle.bcpg.PublicKeyAlgorithmTags;
+import org.bouncycastle.bcpg.S2K;
+import org.bouncycastle.bcpg.SecretKeyPacket;
+import org.bouncycastle.bcpg.SymmetricKeyAlgorithmTags;
+import org.bouncycastle.openpgp.PGPException;
+import org.bouncycastle.openpgp.PGPKeyRingGenerator;
+import org.bouncycastle.openpgp.PGPSecretKey;
+import org.bouncycastle.openpgp.PGPSecretKeyRing;
+import org.bouncycastle.openpgp.PGPSignature;
+import org.bouncycastle.openpgp.operator.PBESecretKeyDecryptor;
+import org.bouncycastle.openpgp.operator.bc.BcKeyFingerprintCalculator;
+import org.bouncycastle.openpgp.operator.bc.BcPBESecretKeyDecryptorBuilder;
+import org.bouncycastle.openpgp.operator.bc.BcPGPContentSignerBuilder;
+import org.bouncycastle.openpgp.operator.bc.BcPGPDigestCalculatorProvider;
+import org.bouncycastle.openpgp.operator.bc.BcPGPKeyPair;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.SecureRandom;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecretKeyProtectionTest {
+
+    private static final char[] PASSPHRASE = "correct horse".toCharArray();
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Test
+    void iterationCountsRoundUpToTheCodedForm() {
+        assertEquals(0x00, SecretKeyProtection.encodeCount(1024));
+        assertEquals(0x60, SecretKeyProtection.encodeCount(65536));
+        assertEquals(0x61, SecretKeyProtection.encodeCount(65537));
+        assertEquals(0xff, SecretKeyProtection.encodeCount(65011712));
+        assertEquals(69632, SecretKeyProtection.iterated(SymmetricKeyAlgorithmTags.AES_256,
+            HashAlgorithmTags.SHA256, 65537).getIterations());
+    }
+
+    @Test
+    void iteratedProtectionIsReadableWithThePassphrase() throws Exception {
+        SecretKeyProtection protection = SecretKeyProtection.iterated(SymmetricKeyAlgorithmTags.AES_256,
+            HashAlgorithmTags.SHA256, 1 << 20);
+
+        PGPSecretKeyRing ring = reparse(protection.protect(unprotectedRing(), PASSPHRASE.clone(), random));
+
+        for (PGPSecretKey key : ring) {
+            assertEquals(SecretKeyPacket.USAGE_SHA1, key.getS2KUsage());
+            assertEquals(S2K.SALTED_AND_ITERATED, key.getS2K().getType());
+            assertEquals(1 << 20, key.getS2K().getIterationCount());
+            assertNotNull(key.extractPrivateKey(decryptor(PASSPHRASE)));
+        }
+        PGPSecretKey master = ring.getSecretKey();
+        assertThrows(PGPException.class, () -> master.extractPrivateKey(decryptor("wrong horse".toCharArray())));
+    }
+
+    @Test
+    void argon2ProtectionUsesAead() throws Exception {
+        SecretKeyProtection protection = SecretKeyProtection.argon2(SymmetricKeyAlgorithmTags.AES_256, 1, 1, 10);
+
+        PGPSecretKeyRing ring = reparse(protection.protect(unprotectedRing(), PASSPHRASE.clone(), random));
+
+        for (PGPSecretKey key : ring) {
+            assertEquals(SecretKeyPacket.USAGE_AEAD, key.getS2KUsage());
+            assertEquals(S2K.ARGON_2, key.getS2K().getType());
+            assertEquals(10, key.getS2K().getMemorySizeExponent());
+            assertNotNull(key.extractPrivateKey(decryptor(PASSPHRASE)));
+        }
+    }
+
+    @Test
+    void passphraseIsZeroedAfterProtection() throws Exception {
+        for (SecretKeyProtection protection : new SecretKeyProtection[] {
+                SecretKeyProtection.iterated(SymmetricKeyAlgorithmTags.AES_256, HashAlgorithmTags.SHA256, 1024),
+                SecretKeyProtection.argon2(SymmetricKeyAlgorithmTags.AES_256, 1, 1, 10)}) {
+            char[] passphrase = PASSPHRASE.clone();
+            protection.protect(unprotectedRing(), passphrase, random);
+            assertArrayEquals(new char[PASSPHRASE.length], passphrase);
+        }
+    }
+
+    @Test
+    void outOfRangeCostsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SecretKeyProtection.iterated(
+            SymmetricKeyAlgorithmTags.AES_256, HashAlgorithmTags.SHA256, 1000));
+        assertThrows(IllegalArgumentException.class, () -> SecretKeyProtection.iterated(
+            SymmetricKeyAlgorithmTags.AES_256, HashAlgorithmTags.SHA256, 65011713));
+        // Four lanes need at least 2^5 KiB
+        assertThrows(IllegalArgumentException.class, () -> SecretKeyProtection.argon2(
+            SymmetricKeyAlgorithmTags.AES_256, 1, 4, 4));
+        assertThrows(IllegalArgumentException.class, () -> SecretKeyProtection.argon2(
+            SymmetricKeyAlgorithmTags.AES_256, 0, 1, 16));
+        assertThrows(IllegalArgumentException.class, () -> SecretKeyProtection.mode("scrypt"));
+    }
+
+    private PGPSecretKeyRing unprotectedRing() throws Exception {
+        CurveKeyGenerator curves = new CurveKeyGenerator();
+        ReflectionTestUtils.setField(curves, "randomness", new SystemRandomnessProvider());
+        Date now = new Date();
+        PGPKeyRingGenerator generator = new PGPKeyRingGenerator(
+            PGPSignature.POSITIVE_CERTIFICATION,
+            new BcPGPKeyPair(PublicKeyAlgorithmTags.EDDSA_LEGACY, curves.generateSigningKey(KeyType.ED25519), now),
+            "Test User <test@example.com>",
+            new BcPGPDigestCalculatorProvider().get(HashAlgorithmTags.SHA1),
+            null,
+            null,
+            new BcPGPContentSignerBuilder(PublicKeyAlgorithmTags.EDDSA_LEGACY, HashAlgorithmTags.SHA256),
+            null);
+        generator.addSubKey(new BcPGPKeyPair(PublicKeyAlgorithmTags.ECDH,
+            curves.generateEncryptionKey(KeyType.ED25519), now));
+        return generator.generateSecretKeyRing();
+    }
+
+    private static PGPSecretKeyRing reparse(PGPSecretKeyRing ring) throws Exception {
+        return new PGPSecretKeyRing(ring.getEncoded(), new BcKeyFingerprintCalculator());
+    }
+
+    private static PBESecretKeyDecryptor decryptor(char[] passphrase) throws PGPException {
+        return new BcPBESecretKeyDecryptorBuilder(new BcPGPDigestCalculatorProvider()).build(passphrase);
+    }
+}
@@ -0,0 +1,143 @@
+package com.keyjolt.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryArtifactStoreTest {
+
+    private InMemoryArtifactStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryArtifactStore();
+        ReflectionTestUtils.setField(store, "ttl", 60000L);
+        ReflectionTestUtils.setField(store, "maxBytes", 64L);
+        ReflectionTestUtils.setField(store, "offHeap", false);
+    }
+
+    @Test
+    void storedArtifactCanBeFoundById() throws Exception {
+        StoredArtifact stored = store.store("key.asc", "hello".getBytes(StandardCharsets.UTF_8));
+
+        StoredArtifact found = store.find(stored.getId());
+        assertNotNull(found);
+        assertEquals("key.asc", found.getFilename());
+        assertEquals(5, found.getSize());
+        try (InputStream in = found.openStream()) {
+            assertEquals("hello", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void idsAreRandomAndCarryFilename() throws Exception {
+        StoredArtifact a = store.store("key.asc", new byte[1]);
+        StoredArtifact b = store.store("key.asc", new byte[1]);
+
+        assertNotEquals(a.getId(), b.getId());
+        assertTrue(a.getId().endsWith("_key.asc"));
+        assertEquals("key.asc", ArtifactStore.filenameOf(a.getId()));
+    }
+
+    @Test
+    void unknownIdReturnsNull() {
+        assertNull(store.find("nonexistent_file.asc"));
+    }
+
+    @Test
+    void storeRejectsContentBeyondByteCap() throws Exception {
+        store.store("a.asc", new byte[60]);
+        assertThrows(ArtifactStoreFullException.class, () -> store.store("b.asc", new byte[10]));
+    }
+
+    @Test
+    void expiredArtifactsAreEvictedAndZeroed() throws Exception {
+        ReflectionTestUtils.setField(store, "ttl", 0L);
+        byte[] content = "secret".getBytes(StandardCharsets.UTF_8);
+        StoredArtifact stored = store.store("key.asc", content);
+
+        store.evictExpired();
+
+        assertNull(store.find(stored.getId()));
+        assertEquals(0, store.getStoredBytes());
+        assertArrayEquals(new byte[content.length], content);
+    }
+
+    @Test
+    void offHeapStoreCopiesAndClearsSource() throws Exception {
+        ReflectionTestUtils.setField(store, "offHeap", true);
+        byte[] content = "secret".getBytes(StandardCharsets.UTF_8);
+        StoredArtifact stored = store.store("key.asc", content);
+
+        assertArrayEquals(new byte[content.length], content);
+        try (InputStream in = stored.openStream()) {
+            assertEquals("secret", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void writerStreamsContentIntoStore() throws Exception {
+        StoredArtifact stored = store.store("key.asc", out -> {
+            out.write('h');
+            out.write("ello".getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertEquals(5, stored.getSize());
+        assertEquals(5, store.getStoredBytes());
+        try (InputStream in = store.find(stored.getId()).openStream()) {
+            assertEquals("hello", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void failedWriterStoresNothing() {
+        assertThrows(IOException.class, () -> store.store("key.asc", out -> {
+            out.write(new byte[8]);
+            throw new IOException("encoding failed");
+        }));
+        assertEquals(0, store.getStoredBytes());
+    }
+
+    @Test
+    void writerBeyondByteCapFailsWhileWriting() throws Exception {
+        store.store("a.asc", new byte[60]);
+        assertThrows(ArtifactStoreFullException.class, () -> store.store("b.asc", out -> out.write(new byte[10])));
+        assertEquals(60, store.getStoredBytes());
+    }
+
+    @Test
+    void streamedContentIsTrimmedToItsLength() throws Exception {
+        ReflectionTestUtils.setField(store, "maxBytes", 8192L);
+        StoredArtifact stored = store.store("key.asc", out -> out.write(new byte[1000]));
+
+        assertEquals(1000, store.getStoredBytes());
+        ByteBuffer buffer = (ByteBuffer) ReflectionTestUtils.getField(stored, "buffer");
+        assertEquals(1000, buffer.capacity());
+    }
+
+    @Test
+    void evictionWaitsForOpenReaders() throws Exception {
+        ReflectionTestUtils.setField(store, "ttl", 0L);
+        byte[] content = "secret".getBytes(StandardCharsets.UTF_8);
+        StoredArtifact stored = store.store("key.asc", content);
+
+        try (InputStream in = stored.openStream()) {
+            store.evictExpired();
+            assertEquals("secret", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            // Still held, so still counted against the cap
+            assertEquals(content.length, store.getStoredBytes());
+        }
+
+        assertArrayEquals(new byte[content.length], content);
+        assertEquals(0, store.getStoredBytes());
+        assertThrows(IOException.class, () -> stored.writeTo(new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,115 @@
+package com.keyjolt.store;
+
+import com.keyjolt.random.SystemRandomnessProvider;
+import com.keyjolt.util.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two store instances over one directory stand in for two nodes behind a
+ * load balancer
+ */
+class SharedDirectoryArtifactStoreTest {
+
+    @TempDir
+    Path sharedDir;
+
+    private SharedDirectoryArtifactStore nodeA;
+    private SharedDirectoryArtifactStore nodeB;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        nodeA = node();
+        nodeB = node();
+    }
+
+    @Test
+    void artifactStoredOnOneNodeIsServedByAnother() throws Exception {
+        StoredArtifact stored = nodeA.store("key.asc", out -> out.write("armored".getBytes(StandardCharsets.UTF_8)));
+
+        StoredArtifact found = nodeB.find(stored.getId());
+        assertNotNull(found);
+        assertEquals("key.asc", found.getFilename());
+        assertNotNull(found.getPath());
+        try (InputStream in = found.openStream()) {
+            assertEquals("armored", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(List.of(stored.getId()), listNames());
+    }
+
+    @Test
+    void bundleStoredOnOneNodeIsServedByAnother() throws Exception {
+        StoredArtifact a = nodeA.store("a.asc", new byte[] {1});
+        StoredArtifact b = nodeA.store("b.asc", new byte[] {2});
+        String token = nodeA.storeBundle(List.of(a, b));
+
+        List<StoredArtifact> bundle = nodeB.findBundle(token);
+        assertNotNull(bundle);
+        assertEquals(2, bundle.size());
+        assertNull(nodeB.find(token + ".bundle"));
+    }
+
+    @Test
+    void expiredArtifactsAreHiddenAndSweptOnce() throws Exception {
+        StoredArtifact stored = nodeA.store("key.asc", new byte[] {1, 2, 3});
+        Path file = stored.getPath();
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 120_000));
+
+        assertNull(nodeB.find(stored.getId()));
+
+        nodeB.sweepExpired();
+        nodeA.sweepExpired();
+        assertTrue(listNames().isEmpty());
+    }
+
+    @Test
+    void abandonedWritesAreSwept() throws Exception {
+        Path abandoned = Files.write(nodeA.getRoot().resolve(".writing-0123456789abcdef0123456789abcdef"), new byte[16]);
+        Files.setLastModifiedTime(abandoned, FileTime.fromMillis(System.currentTimeMillis() - 120_000));
+        StoredArtifact live = nodeA.store("key.asc", new byte[] {1});
+
+        nodeB.sweepExpired();
+
+        assertEquals(List.of(live.getId()), listNames());
+    }
+
+    @Test
+    void lookupsStayInsideTheSharedDirectory() {
+        assertNull(nodeA.find("../../etc/passwd"));
+        assertNull(nodeA.find(".writing-0123456789abcdef0123456789abcdef"));
+        assertNull(nodeA.findBundle("../escape"));
+    }
+
+    private SharedDirectoryArtifactStore node() throws IOException {
+        FileUtils fileUtils = new FileUtils();
+        ReflectionTestUtils.setField(fileUtils, "randomness", new SystemRandomnessProvider());
+        SharedDirectoryArtifactStore store = new SharedDirectoryArtifactStore();
+        ReflectionTestUtils.setField(store, "sharedDir", sharedDir.toString());
+        ReflectionTestUtils.setField(store, "ttl", 60_000L);
+        ReflectionTestUtils.setField(store, "fileUtils", fileUtils);
+        store.init();
+        return store;
+    }
+
+    private List<String> listNames() {
+        try (Stream<Path> files = Files.list(sharedDir.resolve("artifacts"))) {
+            return files.map(path -> path.getFileName().toString()).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
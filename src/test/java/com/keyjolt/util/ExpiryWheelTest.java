@@ -0,0 +1,85 @@
+package com.keyjolt.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiryWheelTest {
+
+    private final Set<Integer> expired = ConcurrentHashMap.newKeySet();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private ExpiryWheel<Integer> wheel;
+
+    @AfterEach
+    void tearDown() {
+        wheel.shutdown();
+    }
+
+    private void waitFor(int count) throws InterruptedException {
+        for (int i = 0; i < 200 && expired.size() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void itemsExpireAfterDelay() throws Exception {
+        wheel = new ExpiryWheel<>("test", 10, 16, 2, batch -> expired.addAll(batch));
+
+        wheel.schedule(1, 50);
+        wheel.schedule(2, 50);
+        assertEquals(2, wheel.getPendingCount());
+        assertTrue(expired.isEmpty());
+
+        waitFor(2);
+        assertEquals(Set.of(1, 2), expired);
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    void workersComeFromSuppliedFactory() throws Exception {
+        List<String> workerNames = new CopyOnWriteArrayList<>();
+        wheel = new ExpiryWheel<>("test", 10, 16, 1, ThreadFactories.platform("custom-worker", true), batch -> {
+            workerNames.add(Thread.currentThread().getName());
+            expired.addAll(batch);
+        });
+
+        wheel.schedule(1, 0);
+
+        waitFor(1);
+        assertEquals(List.of("custom-worker-1"), workerNames);
+    }
+
+    @Test
+    void itemsExpiringInSameTickAreBatchedAcrossWorkers() throws Exception {
+        wheel = new ExpiryWheel<>("test", 50, 16, 2, batch -> {
+            batchSizes.add(batch.size());
+            expired.addAll(batch);
+        });
+
+        for (int i = 0; i < 10; i++) {
+            wheel.schedule(i, 0);
+        }
+
+        waitFor(10);
+        assertEquals(10, expired.size());
+        assertTrue(batchSizes.size() <= 2 * 2, "items should be grouped into few batches");
+    }
+
+    @Test
+    void delaysLongerThanOneRevolutionAreHonoured() throws Exception {
+        wheel = new ExpiryWheel<>("test", 10, 4, 1, batch -> expired.addAll(batch));
+
+        wheel.schedule(1, 150);
+        Thread.sleep(80);
+        assertTrue(expired.isEmpty());
+
+        waitFor(1);
+        assertEquals(Set.of(1), expired);
+    }
+}
@@ -0,0 +1,68 @@
+package com.keyjolt.util;
+
+import com.keyjolt.random.SystemRandomnessProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileUtilsTest {
+
+    private final FileUtils fileUtils = new FileUtils();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fileUtils, "randomness", new SystemRandomnessProvider());
+    }
+
+    @Test
+    void secureDeleteRemovesFile() throws Exception {
+        File file = Files.write(tempDir.resolve("key.asc"), new byte[100_000]).toFile();
+
+        fileUtils.secureDelete(file);
+
+        assertFalse(file.exists());
+    }
+
+    @Test
+    void secureDeleteIgnoresMissingFile() throws Exception {
+        fileUtils.secureDelete(tempDir.resolve("missing.asc").toFile());
+    }
+
+    @Test
+    void secureDeleteAllRemovesGroupAndSkipsMissing() throws Exception {
+        File a = Files.writeString(tempDir.resolve("a.asc"), "private key a").toFile();
+        File b = Files.writeString(tempDir.resolve("b.asc"), "private key b").toFile();
+        File empty = Files.write(tempDir.resolve("empty.asc"), new byte[0]).toFile();
+        File missing = tempDir.resolve("missing.asc").toFile();
+
+        int deleted = fileUtils.secureDeleteAll(List.of(a, b, empty, missing));
+
+        assertEquals(3, deleted);
+        assertFalse(a.exists());
+        assertFalse(b.exists());
+        assertFalse(empty.exists());
+    }
+
+    @Test
+    void secureDeleteAllWorksThroughBacklogInBatches() throws Exception {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < FileUtils.DELETE_BATCH_SIZE * 2 + 5; i++) {
+            files.add(Files.writeString(tempDir.resolve(i + ".asc"), "private key " + i).toFile());
+        }
+
+        assertEquals(files.size(), fileUtils.secureDeleteAll(files));
+        files.forEach(file -> assertFalse(file.exists()));
+    }
+}
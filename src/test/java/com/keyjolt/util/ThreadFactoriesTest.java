@@ -0,0 +1,31 @@
+package com.keyjolt.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadFactoriesTest {
+
+    @Test
+    void platformThreadsAreNumberedFromOne() {
+        ThreadFactory factory = ThreadFactories.platform("worker", true);
+
+        Thread first = factory.newThread(() -> { });
+        Thread second = factory.newThread(() -> { });
+
+        assertEquals("worker-1", first.getName());
+        assertEquals("worker-2", second.getName());
+        assertTrue(first.isDaemon());
+        assertFalse(ThreadFactories.isVirtual(first));
+    }
+
+    @Test
+    void virtualModeMatchesRuntimeSupport() {
+        Thread thread = ThreadFactories.forMode("worker", false, true).newThread(() -> { });
+
+        assertEquals("worker-1", thread.getName());
+        assertEquals(ThreadFactories.virtualThreadsSupported(), ThreadFactories.isVirtual(thread));
+    }
+}
@@ -0,0 +1,102 @@
+package com.keyjolt.validation;
+
+import com.keyjolt.model.KeyRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyFieldValidatorTest {
+
+    @Test
+    void nameRulesMatchTheFormerPattern() {
+        assertTrue(KeyFieldValidator.validateName("Jane Doe 2").isValid());
+        assertTrue(KeyFieldValidator.validateName("Tab\tSeparated").isValid());
+        assertEquals("Name is required", KeyFieldValidator.validateName("   ").getMessage());
+        assertEquals("Name must not exceed 50 characters", KeyFieldValidator.validateName("a".repeat(51)).getMessage());
+        assertEquals("Name can only contain letters, numbers, and spaces",
+            KeyFieldValidator.validateName("Jane <script>").getMessage());
+        assertFalse(KeyFieldValidator.validateName("Jörg").isValid());
+    }
+
+    @Test
+    void emailRulesMatchTheFormerPattern() {
+        for (String email : new String[] {"a@b.co", "jane.doe+keys@mail.example.co.uk", "x_y-z@a-b.io"}) {
+            assertTrue(KeyFieldValidator.validateEmail(email).isValid(), email);
+        }
+        for (String email : new String[] {"@b.co", "a@.co", "a@b", "a@b.c", "a@b.c1", "a@b@c.co", "a b@c.co",
+                "a@b..co.1"}) {
+            assertFalse(KeyFieldValidator.validateEmail(email).isValid(), email);
+        }
+        assertEquals("Email is required", KeyFieldValidator.validateEmail("").getMessage());
+    }
+
+    @Test
+    void keyExpiryAcceptsStringsAndIntegers() {
+        assertTrue(KeyFieldValidator.validateKeyExpiry("0").isValid());
+        assertTrue(KeyFieldValidator.validateKeyExpiry("3650").isValid());
+        assertEquals("Maximum key expiry is 3650 days (10 years)", KeyFieldValidator.validateKeyExpiry("3651").getMessage());
+        assertEquals("Maximum key expiry is 3650 days (10 years)",
+            KeyFieldValidator.validateKeyExpiry("99999999999999999999").getMessage());
+        assertEquals("Key expiry must be 0 or positive", KeyFieldValidator.validateKeyExpiry("-1").getMessage());
+        assertEquals("Key expiry must be a valid number", KeyFieldValidator.validateKeyExpiry("12d").getMessage());
+        assertEquals("Key expiry must be a valid number", KeyFieldValidator.validateKeyExpiry("-").getMessage());
+        assertEquals("Key expiry is required", KeyFieldValidator.validateKeyExpiry((Integer) null).getMessage());
+        assertFalse(KeyFieldValidator.validateKeyExpiry(-5).isValid());
+    }
+
+    @Test
+    void resultsAreSharedConstants() {
+        assertSame(FieldResult.VALID, KeyFieldValidator.validate("name", "Jane"));
+        assertSame(KeyFieldValidator.validate("password", "short"), KeyFieldValidator.validate("password", "abc"));
+        assertSame(FieldResult.VALID, KeyFieldValidator.validate("unknown", "anything"));
+    }
+
+    @Test
+    void validateAllReportsEachKnownField() {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("name", "Jane");
+        form.put("email", "not-an-email");
+        form.put("password", "short");
+        form.put("extra", "ignored");
+
+        Map<String, FieldResult> results = KeyFieldValidator.validateAll(form);
+
+        assertEquals(Set.of("name", "email", "password"), results.keySet());
+        assertTrue(results.get("name").isValid());
+        assertFalse(results.get("email").isValid());
+        assertFalse(results.get("password").isValid());
+        assertThrows(UnsupportedOperationException.class, () -> results.put("name", FieldResult.VALID));
+    }
+
+    @Test
+    void sanitizersReplaceOnlyWhatIsNeeded() {
+        String clean = "JaneDoe";
+        assertSame(clean, KeyFieldValidator.sanitizeName(clean));
+        assertEquals("Jane_Doe", KeyFieldValidator.sanitizeName("Jane Doe"));
+        assertEquals("jane_doe@example.com", KeyFieldValidator.sanitizeEmail("jane+doe@example.com"));
+        assertEquals("", KeyFieldValidator.sanitizeName(null));
+    }
+
+    @Test
+    void beanValidationUsesTheSameRules() {
+        Validator beanValidator = Validation.buildDefaultValidatorFactory().getValidator();
+        KeyRequest request = new KeyRequest("Jane <script>", "jane@example", 2048, 4000, false, null);
+
+        Set<ConstraintViolation<KeyRequest>> violations = beanValidator.validate(request);
+
+        Set<String> messages = new HashSet<>();
+        violations.forEach(violation -> messages.add(violation.getMessage()));
+        assertEquals(Set.of(
+            "Name can only contain letters, numbers, and spaces",
+            "Please enter a valid email address",
+            "Maximum key expiry is 3650 days (10 years)"), messages);
+    }
+}